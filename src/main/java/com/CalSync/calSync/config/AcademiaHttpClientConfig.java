@@ -0,0 +1,63 @@
+package com.CalSync.calSync.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Dedicated Reactor Netty client for Academia. All traffic goes to a single host and most of its
+ * latency is connection setup and TLS handshakes, so connections are pooled and kept alive, and
+ * the pool publishes active, idle and pending connection gauges.
+ */
+@Configuration
+public class AcademiaHttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaHttpClientConfig.class);
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider academiaConnectionProvider(@Value("${calsync.academia.http.max-connections:32}") int maxConnections,
+                                                         @Value("${calsync.academia.http.pending-acquire-max-count:256}") int pendingAcquireMaxCount,
+                                                         @Value("${calsync.academia.http.pending-acquire-timeout:PT10S}") Duration pendingAcquireTimeout,
+                                                         @Value("${calsync.academia.http.max-idle-time:PT30S}") Duration maxIdleTime,
+                                                         @Value("${calsync.academia.http.max-life-time:PT10M}") Duration maxLifeTime,
+                                                         @Value("${calsync.academia.http.evict-interval:PT30S}") Duration evictInterval) {
+        logger.info("Academia connection pool: {} connections, {} pending, idle {} / life {}", maxConnections, pendingAcquireMaxCount, maxIdleTime, maxLifeTime);
+        return ConnectionProvider.builder("academia")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Close connections before the server's keep-alive timeout does, so we never write to a dead socket
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                // Reuse the most recently used connection first, so the warm ones stay warm and the rest age out
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient academiaHttpClient(ConnectionProvider academiaConnectionProvider,
+                                         @Value("${calsync.academia.http.connect-timeout:PT5S}") Duration connectTimeout,
+                                         @Value("${calsync.academia.http.response-timeout:PT20S}") Duration responseTimeout,
+                                         @Value("${calsync.academia.http.dns-cache-ttl:PT5M}") Duration dnsCacheTtl) {
+        return HttpClient.create(academiaConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .keepAlive(true)
+                // Sends Accept-Encoding: gzip when none is set and transparently decodes gzip and deflate bodies
+                .compress(true)
+                .resolver(spec -> spec
+                        .cacheMinTimeToLive(dnsCacheTtl)
+                        .cacheMaxTimeToLive(dnsCacheTtl)
+                        .cacheNegativeTimeToLive(Duration.ofSeconds(10)));
+    }
+}
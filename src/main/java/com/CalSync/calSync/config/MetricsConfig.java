@@ -0,0 +1,85 @@
+package com.CalSync.calSync.config;
+
+import com.CalSync.calSync.service.AcademiaCircuitBreaker;
+import com.CalSync.calSync.service.AcademiaGovernor;
+import com.CalSync.calSync.service.AcademiaSessionPool;
+import com.CalSync.calSync.service.CalendarGenerationCoalescer;
+import com.CalSync.calSync.service.CalendarRefreshScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Publishes the counters the Academia client, the generation coalescer and the refresh engine
+ * already keep as Micrometer meters, next to the per-stage pipeline timers.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder academiaMeters(AcademiaGovernor governor, AcademiaCircuitBreaker circuitBreaker, AcademiaSessionPool sessionPool) {
+        return registry -> {
+            Gauge.builder("calsync.academia.governor.permits.available", governor, AcademiaGovernor::getAvailablePermits)
+                    .description("Outbound Academia call permits currently free")
+                    .register(registry);
+            Gauge.builder("calsync.academia.governor.queue.length", governor, AcademiaGovernor::getQueueLength)
+                    .description("Academia calls waiting for a permit")
+                    .register(registry);
+            FunctionCounter.builder("calsync.academia.governor.admitted", governor, AcademiaGovernor::getAdmitted)
+                    .register(registry);
+            FunctionCounter.builder("calsync.academia.governor.queued", governor, AcademiaGovernor::getQueued)
+                    .register(registry);
+            FunctionCounter.builder("calsync.academia.governor.rejected", governor, AcademiaGovernor::getRejected)
+                    .register(registry);
+
+            for (AcademiaCircuitBreaker.State state : AcademiaCircuitBreaker.State.values()) {
+                // One series per state, 1 for the current one, so dashboards can plot transitions
+                Gauge.builder("calsync.academia.breaker.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                        .tag("state", state.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+            }
+            FunctionCounter.builder("calsync.academia.breaker.opened", circuitBreaker, AcademiaCircuitBreaker::getTimesOpened)
+                    .register(registry);
+            FunctionCounter.builder("calsync.academia.breaker.rejected", circuitBreaker, AcademiaCircuitBreaker::getRejected)
+                    .register(registry);
+
+            Gauge.builder("calsync.academia.sessions", sessionPool, AcademiaSessionPool::size)
+                    .description("Pooled Academia sessions")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder calendarMeters(CalendarGenerationCoalescer coalescer, ObjectProvider<CalendarRefreshScheduler> refreshScheduler) {
+        return registry -> {
+            FunctionCounter.builder("calsync.generation.leaders", coalescer, CalendarGenerationCoalescer::getLeaders)
+                    .description("Calendar generations started")
+                    .register(registry);
+            FunctionCounter.builder("calsync.generation.coalesced", coalescer, CalendarGenerationCoalescer::getCoalesced)
+                    .description("Requests that joined a generation already in flight")
+                    .register(registry);
+            Gauge.builder("calsync.generation.in.flight", coalescer, CalendarGenerationCoalescer::getInFlight)
+                    .register(registry);
+
+            // Absent when calsync.refresh.enabled=false
+            refreshScheduler.ifAvailable(scheduler -> {
+                FunctionCounter.builder("calsync.refresh.sweeps", scheduler, CalendarRefreshScheduler::getSweepsCompleted)
+                        .register(registry);
+                FunctionCounter.builder("calsync.refresh.users.refreshed", scheduler, CalendarRefreshScheduler::getUsersRefreshed)
+                        .register(registry);
+                FunctionCounter.builder("calsync.refresh.users.failed", scheduler, CalendarRefreshScheduler::getUsersFailed)
+                        .register(registry);
+                Gauge.builder("calsync.refresh.in.flight", scheduler, CalendarRefreshScheduler::getInFlight)
+                        .register(registry);
+                Gauge.builder("calsync.refresh.last.sweep.duration", scheduler, s -> s.getLastSweepDuration().toMillis() / 1000.0)
+                        .baseUnit("seconds")
+                        .register(registry);
+            });
+        };
+    }
+}
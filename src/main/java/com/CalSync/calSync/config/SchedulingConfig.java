@@ -0,0 +1,34 @@
+package com.CalSync.calSync.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Short housekeeping jobs such as session eviction share the default scheduler. The calendar refresh
+ * sweep sleeps and waits for refresh permits for as long as it runs, so it gets a thread of its own
+ * instead of holding the shared one for hours.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String REFRESH_SWEEP_SCHEDULER = "refreshSweepScheduler";
+
+    // Declared explicitly because any TaskScheduler bean, like the one below, turns off Boot's default
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(REFRESH_SWEEP_SCHEDULER)
+    public ThreadPoolTaskScheduler refreshSweepScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("calendar-refresh-sweep-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
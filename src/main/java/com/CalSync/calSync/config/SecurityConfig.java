@@ -17,6 +17,8 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    static final String METRICS_ROLE = "METRICS";
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -24,8 +26,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/**").permitAll() // Allow public access to all API endpoints
+                .requestMatchers("/actuator/health").permitAll() // Load balancer health checks
+                .requestMatchers("/actuator/**").hasRole(METRICS_ROLE) // Metric scrapes
                 .anyRequest().authenticated()
-            );
+            )
+            .httpBasic(withDefaults()); // The Prometheus scraper authenticates with spring.security.user.*
         return http.build();
     }
 
@@ -1,32 +1,50 @@
 package com.CalSync.calSync.controller;
 
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.dto.CalendarChanges;
 import com.CalSync.calSync.dto.SubscriptionRequest;
+import com.CalSync.calSync.service.AcademiaBusyException;
+import com.CalSync.calSync.service.AcademiaUnavailableException;
+import com.CalSync.calSync.service.CalendarSyncService;
 import com.CalSync.calSync.service.InvalidCredentialsException;
 import com.CalSync.calSync.service.SubscriptionService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api")
 public class SubscriptionController {
 
+    // Academia admission is re-evaluated within seconds, so ask clients to come back soon
+    private static final String RETRY_AFTER_SECONDS = "30";
+    private static final String BUSY_MESSAGE = "Too many requests to Academia right now. Please try again shortly.";
+    private static final String NOT_FOUND_MESSAGE = "Calendar not found.";
+
     private final SubscriptionService subscriptionService;
+    private final CalendarSyncService calendarSyncService;
     // Add the logger declaration
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionController.class);
 
     @Autowired
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService,
+                                  CalendarSyncService calendarSyncService) {
         this.subscriptionService = subscriptionService;
+        this.calendarSyncService = calendarSyncService;
     }
 
     /**
@@ -47,13 +65,58 @@ public class SubscriptionController {
      * Endpoint to retrieve the generated iCalendar (.ics) file.
      * This is the URL that calendar clients will use to subscribe.
      * @param token The unique subscription token.
-     * @return The .ics file content with the appropriate headers.
+     * @param ifNoneMatch The client's cached ETag(s), if any.
+     * @param acceptEncoding The content codings the client accepts, if any.
+     * @return The .ics file content with the appropriate headers, or 304 if the client's copy is current.
      */
-@GetMapping("/calendar/{token}")
-public ResponseEntity<String> getCalendar(@PathVariable String token) {
-    try {
-        String icsContent = subscriptionService.generateCalendar(token);
+    @GetMapping("/calendar/{token}")
+    public Mono<ResponseEntity<byte[]>> getCalendar(@PathVariable String token,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Returned asynchronously: the request thread is released while Academia is being scraped
+        return subscriptionService.getCalendarAsync(token)
+                .map(calendar -> buildCalendarResponse(calendar, ifNoneMatch, acceptsGzip(acceptEncoding)))
+                .onErrorResume(e -> e instanceof AcademiaBusyException || e instanceof AcademiaUnavailableException, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .body(BUSY_MESSAGE.getBytes(StandardCharsets.UTF_8))))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .body(Objects.toString(e.getMessage(), NOT_FOUND_MESSAGE).getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Endpoint for incremental sync: returns only the events added, changed or removed since the
+     * client's last sync, keyed by the same UIDs as the .ics feed.
+     * @param token The unique subscription token.
+     * @param since The sync token from the previous response; omit it on the first sync.
+     * @return The changes and the sync token to send next time.
+     */
+    @GetMapping("/calendar/{token}/changes")
+    public Mono<ResponseEntity<CalendarChanges>> getCalendarChanges(@PathVariable String token,
+                                                                    @RequestParam(value = "since", required = false) String since) {
+        return subscriptionService.getCalendarAsync(token)
+                .map(calendar -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .body(calendarSyncService.changes(token, calendar, since)))
+                .onErrorResume(e -> e instanceof AcademiaBusyException || e instanceof AcademiaUnavailableException, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .<CalendarChanges>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    private ResponseEntity<byte[]> buildCalendarResponse(CachedCalendar calendar, String ifNoneMatch, boolean gzip) {
+        // Both variants are precompressed when the calendar is generated; here we only pick one
+        byte[] body = gzip ? calendar.gzipContent() : calendar.content();
+        String etag = gzip ? calendar.gzipEtag() : calendar.etag();
+
         HttpHeaders headers = new HttpHeaders();
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.setETag(etag);
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
 
         // Set proper media type
         MediaType mediaType = new MediaType("text", "calendar", StandardCharsets.UTF_8);
@@ -61,13 +124,68 @@ public ResponseEntity<String> getCalendar(@PathVariable String token) {
 
         // Use inline disposition, not form-data
         headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"calsync.ics\"");
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.setContentLength(body.length);
 
-        return new ResponseEntity<>(icsContent, headers, HttpStatus.OK);
-    } catch (RuntimeException e) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] params = candidate.trim().split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            boolean acceptable = true;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        acceptable = Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        acceptable = false;
+                    }
+                }
+            }
+            // An explicit gzip entry wins over the wildcard, including gzip;q=0
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return acceptable;
+            }
+            if (coding.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard;
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so a W/ prefix still matches our strong tag
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
     
+    @ExceptionHandler({AcademiaBusyException.class, AcademiaUnavailableException.class})
+    public ResponseEntity<Map<String, String>> handleAcademiaBusy(RuntimeException ex) {
+        logger.warn("Rejected request while Academia is busy: {}", ex.getMessage());
+        Map<String, String> response = Map.of("error", "Service Busy", "message", BUSY_MESSAGE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+    }
+
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<Map<String, String>> handleInvalidCredentials(InvalidCredentialsException ex) {
         logger.error("Authentication failed: {}", ex.getMessage());
@@ -0,0 +1,21 @@
+package com.CalSync.calSync.dto;
+
+import java.time.Instant;
+
+/**
+ * A generated .ics payload together with the validator sent to calendar clients.
+ * @param content The UTF-8 encoded iCalendar bytes.
+ * @param gzipContent {@code content} compressed once with gzip, served to clients that accept it.
+ * @param etag The strong, quoted ETag for {@code content}.
+ * @param generatedAt When the calendar was built.
+ */
+public record CachedCalendar(byte[] content, byte[] gzipContent, String etag, Instant generatedAt) {
+
+    /**
+     * The gzip variant is a different representation, so it needs its own strong validator.
+     * @return The quoted ETag for {@code gzipContent}.
+     */
+    public String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
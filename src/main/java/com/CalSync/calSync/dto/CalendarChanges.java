@@ -0,0 +1,14 @@
+package com.CalSync.calSync.dto;
+
+import java.util.List;
+
+/**
+ * The difference between the event set a client last synced and the current one.
+ * @param syncToken The version of the current event set, to send as {@code since} next time.
+ * @param reset True when {@code since} was missing or unknown: {@code added} is then the whole event
+ *              set and the client should drop anything it kept from earlier syncs.
+ * @param added Events that are new since {@code since}.
+ * @param changed Events whose UID is known but whose content changed.
+ * @param removed UIDs of events that no longer exist.
+ */
+public record CalendarChanges(String syncToken, boolean reset, List<CalendarEvent> added, List<CalendarEvent> changed, List<String> removed) {}
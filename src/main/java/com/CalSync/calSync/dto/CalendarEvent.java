@@ -0,0 +1,14 @@
+package com.CalSync.calSync.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One VEVENT of a generated calendar, as returned by the changes endpoint.
+ * @param uid The stable event UID, also used in the .ics feed.
+ * @param summary The event summary, unescaped.
+ * @param start When the (first) occurrence starts.
+ * @param end When the (first) occurrence ends.
+ * @param additionalStarts Starts of further occurrences with the same duration; only used in compact mode.
+ */
+public record CalendarEvent(String uid, String summary, Instant start, Instant end, List<Instant> additionalStarts) {}
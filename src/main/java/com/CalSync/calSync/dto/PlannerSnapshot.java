@@ -0,0 +1,10 @@
+package com.CalSync.calSync.dto;
+
+import java.util.List;
+
+/**
+ * The parsed academic planner together with a version that changes whenever its content does.
+ * @param events The planner days.
+ * @param version A content hash of {@code events}.
+ */
+public record PlannerSnapshot(List<DayEvent> events, String version) {}
@@ -0,0 +1,40 @@
+package com.CalSync.calSync.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * The latest generated calendar of a user, persisted so that any instance can serve it after a
+ * restart or scale-out without scraping Academia first.
+ */
+@Data
+@Entity
+@Table(name = "calendar_snapshots")
+public class CalendarSnapshot {
+
+    // Shares the owning user's id, so there is at most one snapshot per user
+    @Id
+    private Long userId;
+
+    @Column(unique = true, nullable = false)
+    private String subscriptionToken;
+
+    // The gzip-compressed .ics, the same bytes served to clients that accept gzip
+    @Column(nullable = false, length = 16 * 1024 * 1024)
+    private byte[] gzipContent;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String etag;
+
+    @Column(nullable = false)
+    private Instant generatedAt;
+
+}
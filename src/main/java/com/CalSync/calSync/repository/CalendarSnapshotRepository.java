@@ -0,0 +1,23 @@
+package com.CalSync.calSync.repository;
+
+import com.CalSync.calSync.model.CalendarSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface CalendarSnapshotRepository extends JpaRepository<CalendarSnapshot, Long> {
+    Optional<CalendarSnapshot> findBySubscriptionToken(String subscriptionToken);
+
+    // Marks an unchanged snapshot as revalidated without rewriting its content
+    @Transactional
+    @Modifying
+    @Query("update CalendarSnapshot s set s.generatedAt = :generatedAt where s.userId = :userId and s.contentHash = :contentHash")
+    int touch(@Param("userId") Long userId, @Param("contentHash") String contentHash, @Param("generatedAt") Instant generatedAt);
+}
@@ -0,0 +1,15 @@
+package com.CalSync.calSync.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the outbound Academia governor cannot admit a call: its wait queue is full or the
+ * wait would exceed the configured limit.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Academia is busy, please retry later")
+public class AcademiaBusyException extends RuntimeException {
+    public AcademiaBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,156 @@
+package com.CalSync.calSync.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker around Academia. After {@code failure-threshold} consecutive upstream failures it
+ * opens and fails calls immediately for {@code open-duration}; then a single probe call is let
+ * through and its outcome decides whether the circuit closes again or stays open.
+ *
+ * <p>Only failures that say something about Academia's health count: connection errors, timeouts
+ * and 5xx responses. Rejected credentials, expired sessions and 4xx responses prove the upstream
+ * is answering; local admission rejections from {@link AcademiaGovernor} are ignored.
+ */
+@Service
+public class AcademiaCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    // All transitions happen under this monitor; each is a handful of field writes
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong timesOpened = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AcademiaCircuitBreaker(@Value("${calsync.academia.breaker.failure-threshold:5}") int failureThreshold,
+                                  @Value("${calsync.academia.breaker.open-duration:PT1M}") Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Runs a call through the breaker.
+     * @param call The lazy Academia call.
+     * @return The call's result, or an {@link AcademiaUnavailableException} while the circuit is open.
+     */
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejected.incrementAndGet();
+                return Mono.error(new AcademiaUnavailableException("Academia is unavailable, circuit breaker is open."));
+            }
+            return call
+                    .doOnSuccess(value -> onSuccess())
+                    .doOnError(this::onError)
+                    .doOnCancel(this::onCancel);
+        });
+    }
+
+    /**
+     * @return True while calls would be rejected or only a probe is being let through, i.e. when a
+     *         caller should not wait for Academia.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.HALF_OPEN
+                || (state == State.OPEN && System.nanoTime() - openedAt < openDurationNanos);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("Academia circuit half-open, sending a probe request.");
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Academia probe succeeded, closing circuit.");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private void onError(Throwable error) {
+        if (error instanceof AcademiaBusyException || error instanceof AcademiaUnavailableException) {
+            // Rejected locally before reaching Academia, so it says nothing about upstream health
+            onCancel();
+            return;
+        }
+        if (!isUpstreamFailure(error)) {
+            onSuccess();
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                timesOpened.incrementAndGet();
+                logger.warn("Academia circuit opened after {} consecutive failures, last: {}", consecutiveFailures, error.toString());
+            }
+        }
+    }
+
+    private synchronized void onCancel() {
+        // A cancelled or locally rejected probe proved nothing; let the next caller probe instead
+        probeInFlight = false;
+    }
+
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof InvalidCredentialsException || error instanceof AcademiaSessionExpiredException) {
+            return false;
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+}
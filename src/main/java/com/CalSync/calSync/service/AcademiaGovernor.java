@@ -0,0 +1,246 @@
+package com.CalSync.calSync.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single choke point for all outbound Academia traffic. Every call first takes a token from the
+ * bucket of its endpoint class, then one of a fixed number of concurrency permits. Callers that
+ * cannot get a permit wait in a bounded FIFO queue; once the queue is full, or the rate delay plus
+ * the queue wait would exceed {@code calsync.academia.governor.max-wait}, they fail fast with
+ * {@link AcademiaBusyException}.
+ * Nothing here parks a thread.
+ */
+@Service
+public class AcademiaGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaGovernor.class);
+
+    public enum Endpoint {
+        SIGNIN_PAGE,
+        LOOKUP,
+        PASSWORD,
+        PAGE_FETCH,
+        LOGOUT
+    }
+
+    /**
+     * Token bucket kept as the theoretical arrival time of the next token (GCRA), so reserving a
+     * token is a single CAS and the caller learns exactly how long to wait.
+     */
+    private static final class TokenBucket {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong nextTokenAt;
+
+        private TokenBucket(double permitsPerSecond, int burst) {
+            this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+            this.burstNanos = intervalNanos * (burst - 1);
+            this.nextTokenAt = new AtomicLong(System.nanoTime() - burstNanos);
+        }
+
+        // Returns the wait in nanoseconds, or -1 without consuming a token if it would exceed maxWaitNanos
+        private long reserve(long maxWaitNanos) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = nextTokenAt.get();
+                long slot = Math.max(current, now - burstNanos);
+                long wait = Math.max(0, slot - now);
+                if (wait > maxWaitNanos) {
+                    return -1;
+                }
+                if (nextTokenAt.compareAndSet(current, slot + intervalNanos)) {
+                    return wait;
+                }
+            }
+        }
+
+        // Gives back a reserved token whose call was never admitted or queued
+        private void cancel() {
+            nextTokenAt.addAndGet(-intervalNanos);
+        }
+    }
+
+    private static final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+    }
+
+    private static final class Waiter {
+        private final Sinks.One<Permit> sink = Sinks.one();
+        private Permit granted;
+    }
+
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Map<Endpoint, TokenBucket> buckets = new EnumMap<>(Endpoint.class);
+
+    // Guards available and waiters; every critical section is a few field updates
+    private final Object lock = new Object();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int available;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AcademiaGovernor(@Value("${calsync.academia.governor.max-concurrency:16}") int maxConcurrency,
+                            @Value("${calsync.academia.governor.max-queue:200}") int maxQueue,
+                            @Value("${calsync.academia.governor.max-wait:PT10S}") Duration maxWait,
+                            @Value("${calsync.academia.governor.burst:4}") int burst,
+                            @Value("${calsync.academia.governor.rate.signin-page:2}") double signinPageRate,
+                            @Value("${calsync.academia.governor.rate.lookup:2}") double lookupRate,
+                            @Value("${calsync.academia.governor.rate.password:2}") double passwordRate,
+                            @Value("${calsync.academia.governor.rate.page-fetch:8}") double pageFetchRate,
+                            @Value("${calsync.academia.governor.rate.logout:2}") double logoutRate) {
+        if (maxConcurrency < 1 || maxQueue < 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid Academia governor limits: max-concurrency=" + maxConcurrency
+                    + ", max-queue=" + maxQueue + ", burst=" + burst);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.available = maxConcurrency;
+        buckets.put(Endpoint.SIGNIN_PAGE, new TokenBucket(signinPageRate, burst));
+        buckets.put(Endpoint.LOOKUP, new TokenBucket(lookupRate, burst));
+        buckets.put(Endpoint.PASSWORD, new TokenBucket(passwordRate, burst));
+        buckets.put(Endpoint.PAGE_FETCH, new TokenBucket(pageFetchRate, burst));
+        buckets.put(Endpoint.LOGOUT, new TokenBucket(logoutRate, burst));
+        logger.info("Academia governor: {} concurrent calls, queue of {}, max wait {}, burst {}, rates/s signin={} lookup={} password={} page={} logout={}",
+                maxConcurrency, maxQueue, maxWait, burst, signinPageRate, lookupRate, passwordRate, pageFetchRate, logoutRate);
+    }
+
+    /**
+     * Runs an outbound call once its endpoint's rate limit and the global concurrency cap allow it.
+     * The rate delay and the queue wait together never exceed {@code max-wait}, and a call that is
+     * turned away does not use up its endpoint's rate budget. The permit is returned when the call
+     * terminates or is cancelled.
+     * @param endpoint The endpoint class the call belongs to.
+     * @param call The lazy outbound call.
+     * @return The call's result, or an {@link AcademiaBusyException} if it could not be admitted in time.
+     */
+    public <T> Mono<T> execute(Endpoint endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            if (isSaturated()) {
+                rejected.incrementAndGet();
+                return Mono.error(new AcademiaBusyException("Too many pending Academia requests, try again later."));
+            }
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            TokenBucket bucket = buckets.get(endpoint);
+            long waitNanos = bucket.reserve(maxWait.toNanos());
+            if (waitNanos < 0) {
+                rejected.incrementAndGet();
+                return Mono.error(new AcademiaBusyException("Academia " + endpoint + " rate limit exceeded, try again later."));
+            }
+            Mono<Void> paced = waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+            return paced.then(Mono.usingWhen(acquire(endpoint, bucket, deadline), permit -> call,
+                    this::releaseAsync, (permit, error) -> releaseAsync(permit), this::releaseAsync));
+        });
+    }
+
+    // Checked before a rate token is reserved, so calls the queue would turn away cost no rate budget
+    private boolean isSaturated() {
+        synchronized (lock) {
+            return available == 0 && waiters.size() >= maxQueue;
+        }
+    }
+
+    // The queue wait only gets what the rate delay left of max-wait
+    private Mono<Permit> acquire(Endpoint endpoint, TokenBucket bucket, long deadline) {
+        return Mono.defer(() -> {
+            long remainingNanos = deadline - System.nanoTime();
+            Waiter waiter;
+            synchronized (lock) {
+                if (available > 0) {
+                    available--;
+                    admitted.incrementAndGet();
+                    return Mono.just(new Permit());
+                }
+                if (waiters.size() >= maxQueue || remainingNanos <= 0) {
+                    // Neither admitted nor queued, e.g. the queue filled up during the rate delay: give the token back
+                    rejected.incrementAndGet();
+                    bucket.cancel();
+                    return Mono.error(new AcademiaBusyException("Too many pending Academia requests, try again later."));
+                }
+                waiter = new Waiter();
+                waiters.addLast(waiter);
+            }
+            queued.incrementAndGet();
+            logger.debug("All {} Academia permits in use, queueing {} call", maxConcurrency, endpoint);
+            return waiter.sink.asMono()
+                    .timeout(Duration.ofNanos(remainingNanos), Mono.error(() -> new AcademiaBusyException("Timed out waiting for an Academia connection slot.")))
+                    .doOnError(AcademiaBusyException.class, e -> abandon(waiter))
+                    .doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit permit;
+        synchronized (lock) {
+            if (waiter.granted == null) {
+                waiters.remove(waiter);
+                rejected.incrementAndGet();
+                return;
+            }
+            // Granted in the same instant we gave up: the permit never reached a caller, so hand it on
+            permit = waiter.granted;
+        }
+        release(permit);
+    }
+
+    private Mono<Void> releaseAsync(Permit permit) {
+        return Mono.fromRunnable(() -> release(permit));
+    }
+
+    private void release(Permit permit) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        Waiter next;
+        synchronized (lock) {
+            next = waiters.pollFirst();
+            if (next == null) {
+                available++;
+                return;
+            }
+            next.granted = new Permit();
+            admitted.incrementAndGet();
+        }
+        next.sink.tryEmitValue(next.granted);
+    }
+
+    public int getAvailablePermits() {
+        synchronized (lock) {
+            return available;
+        }
+    }
+
+    public int getQueueLength() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
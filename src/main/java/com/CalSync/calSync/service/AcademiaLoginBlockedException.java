@@ -0,0 +1,11 @@
+package com.CalSync.calSync.service;
+
+/**
+ * Thrown when Academia refuses a sign-in as automated access (SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED)
+ * rather than because the credentials are wrong.
+ */
+public class AcademiaLoginBlockedException extends InvalidCredentialsException {
+    public AcademiaLoginBlockedException(String message) {
+        super(message);
+    }
+}
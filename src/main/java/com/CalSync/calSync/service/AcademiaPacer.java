@@ -0,0 +1,92 @@
+package com.CalSync.calSync.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Human-like pacing for the Academia login flow. Every pause is a timer-based {@link Mono} delay, so
+ * waiting never parks a thread. On top of the per-step jitter, requests to the same host are spaced
+ * by a minimum interval so concurrent logins do not arrive as a burst.
+ */
+@Service
+public class AcademiaPacer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaPacer.class);
+
+    public enum Step {
+        SIGNIN_PAGE,
+        LOOKUP,
+        PASSWORD
+    }
+
+    private record Range(long minMillis, long maxMillis) {}
+
+    private final boolean enabled;
+    private final long hostIntervalMillis;
+    private final Map<Step, Range> ranges = new EnumMap<>(Step.class);
+    private final Map<String, AtomicLong> nextSlotByHost = new ConcurrentHashMap<>();
+
+    public AcademiaPacer(@Value("${calsync.academia.pacing.enabled:true}") boolean enabled,
+                         @Value("${calsync.academia.pacing.signin-page:500-1000}") String signinPageRange,
+                         @Value("${calsync.academia.pacing.lookup:300-600}") String lookupRange,
+                         @Value("${calsync.academia.pacing.password:400-800}") String passwordRange,
+                         @Value("${calsync.academia.pacing.host-interval:PT0.1S}") Duration hostInterval) {
+        this.enabled = enabled;
+        this.hostIntervalMillis = hostInterval.toMillis();
+        ranges.put(Step.SIGNIN_PAGE, parseRange(signinPageRange));
+        ranges.put(Step.LOOKUP, parseRange(lookupRange));
+        ranges.put(Step.PASSWORD, parseRange(passwordRange));
+        logger.info("Academia pacing {} with ranges {} and per-host interval {}", enabled ? "enabled" : "disabled", ranges, hostInterval);
+    }
+
+    /**
+     * Waits before a login step without holding a thread.
+     * @param host The Academia host the step will call.
+     * @param step The login step about to be performed.
+     * @return A Mono that completes once the pause is over.
+     */
+    public Mono<Void> pause(String host, Step step) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            long delay = reserveSlot(host, jitter(ranges.get(step)));
+            return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then() : Mono.<Void>empty();
+        });
+    }
+
+    private long jitter(Range range) {
+        return range.maxMillis() > range.minMillis()
+                ? ThreadLocalRandom.current().nextLong(range.minMillis(), range.maxMillis() + 1)
+                : range.minMillis();
+    }
+
+    private long reserveSlot(String host, long jitterMillis) {
+        // Claim the host's next free slot at or after our own jittered time, then push it out by the interval
+        long now = System.currentTimeMillis();
+        long wanted = now + jitterMillis;
+        AtomicLong nextSlot = nextSlotByHost.computeIfAbsent(host, h -> new AtomicLong());
+        long slot = nextSlot.getAndAccumulate(wanted, (next, requested) -> Math.max(next, requested) + hostIntervalMillis);
+        return Math.max(slot, wanted) - now;
+    }
+
+    private static Range parseRange(String value) {
+        String[] parts = value.split("-", 2);
+        long min = Long.parseLong(parts[0].trim());
+        long max = parts.length > 1 ? Long.parseLong(parts[1].trim()) : min;
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid pacing range '" + value + "', expected <minMillis>-<maxMillis>");
+        }
+        return new Range(min, max);
+    }
+}
@@ -3,17 +3,22 @@ package com.CalSync.calSync.service;
 import com.CalSync.calSync.dto.UserLookupResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,20 +31,44 @@ import java.util.stream.Collectors;
 public class AcademiaService {
 
     private final WebClient webClient;
+    private final AcademiaPacer pacer;
+    private final AcademiaGovernor governor;
+    private final AcademiaCircuitBreaker circuitBreaker;
+    private final CalendarPipelineMetrics metrics;
     private static final Logger logger = LoggerFactory.getLogger(AcademiaService.class);
-    private static final String BASE_URL = "https://academia.srmist.edu.in";
-    private static final String LOGIN_PAGE_URL = BASE_URL + "/accounts/p/10002227248/signin?hide_fp=true&servicename=ZohoCreator&service_language=en&css_url=/49910842/academia-academic-services/downloadPortalCustomCss/login&dcc=true&serviceurl=" + BASE_URL + "/portal/academia-academic-services/redirectFromLogin";
+    // Overridable so that load tests can point the client at a local simulator
+    private final String baseUrl;
+    private final URI baseUri;
+    private final String host;
+    private final String loginPageUrl;
 
     // Enhanced browser headers
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.0.0 Safari/537.36";
     private static final String ACCEPT_LANGUAGE = "en-US,en;q=0.9";
-    private static final String ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+    // Only codings the Netty client can decode; see AcademiaHttpClientConfig
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
     private static final String SEC_CH_UA = "\"Google Chrome\";v=\"129\", \"Not=A?Brand\";v=\"8\", \"Chromium\";v=\"129\"";
     private static final String SEC_CH_UA_MOBILE = "?0";
     private static final String SEC_CH_UA_PLATFORM = "\"Windows\"";
 
-    public AcademiaService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public AcademiaService(WebClient.Builder webClientBuilder, HttpClient academiaHttpClient, AcademiaPacer pacer, AcademiaGovernor governor, AcademiaCircuitBreaker circuitBreaker, CalendarPipelineMetrics metrics,
+                           @Value("${calsync.academia.base-url:https://academia.srmist.edu.in}") String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.baseUri = URI.create(this.baseUrl);
+        this.host = baseUri.getHost();
+        this.loginPageUrl = this.baseUrl + "/accounts/p/10002227248/signin?hide_fp=true&servicename=ZohoCreator&service_language=en&css_url=/49910842/academia-academic-services/downloadPortalCustomCss/login&dcc=true&serviceurl=" + this.baseUrl + "/portal/academia-academic-services/redirectFromLogin";
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(academiaHttpClient))
+                .build();
+        this.pacer = pacer;
+        this.governor = governor;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+    }
+
+    // The breaker sits outside the governor so an open circuit does not even queue for a permit
+    private <T> Mono<T> call(AcademiaGovernor.Endpoint endpoint, Mono<T> request) {
+        return circuitBreaker.execute(governor.execute(endpoint, request));
     }
 
     private String combineCookies(String existingCookies, List<String> newCookies) {
@@ -73,17 +102,57 @@ public class AcademiaService {
     }
 
     public String loginAndGetCookie(String username, String password) {
-        logger.debug("Step 1: Fetching initial cookies from {}", LOGIN_PAGE_URL);
-        
-        // Add delay to appear more human-like
-        try {
-            Thread.sleep(500 + (long)(Math.random() * 500)); // 500-1000ms delay
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        ResponseEntity<String> initialResponse = webClient.get()
-                .uri(LOGIN_PAGE_URL)
+        return loginAsync(username, password).block();
+    }
+
+    /**
+     * Performs the three-step Academia login (sign-in page, user lookup, password submit) as a chain
+     * of non-blocking stages. The human-like pauses between steps come from {@link AcademiaPacer} and hold no thread.
+     * @param username The Academia username.
+     * @param password The plain-text password.
+     * @return The combined session cookie once the login completes.
+     */
+    public Mono<String> loginAsync(String username, String password) {
+        return metrics.time(CalendarPipelineMetrics.Stage.LOGIN, loginSteps(username, password));
+    }
+
+    private Mono<String> loginSteps(String username, String password) {
+        return pacer.pause(host, AcademiaPacer.Step.SIGNIN_PAGE)
+                .then(fetchLoginPage())
+                .flatMap(sessionCookies -> {
+                    String sessionCsrfToken = extractCsrfToken(sessionCookies);
+                    logger.debug("Successfully obtained session cookies and CSRF token.");
+
+                    return pacer.pause(host, AcademiaPacer.Step.LOOKUP)
+                            .then(performUserLookup(username, sessionCookies, sessionCsrfToken))
+                            .flatMap(lookupResponseEntity -> {
+                                UserLookupResponse lookupResponse = lookupResponseEntity.getBody();
+                                if (lookupResponse == null || lookupResponse.getLookupData() == null || lookupResponse.getLookupData().getIdentifier() == null) {
+                                    logger.error("User lookup failed. Response body: {}", lookupResponse);
+                                    return Mono.error(new InvalidCredentialsException("User lookup failed. Invalid username."));
+                                }
+
+                                String updatedCookies = combineCookies(sessionCookies, lookupResponseEntity.getHeaders().getOrEmpty(HttpHeaders.SET_COOKIE));
+                                String updatedCsrfToken = extractCsrfToken(updatedCookies);
+
+                                if (!updatedCsrfToken.equals(sessionCsrfToken)) {
+                                    logger.debug("CSRF token was refreshed during lookup. Old: {}, New: {}",
+                                        sessionCsrfToken.substring(0, Math.min(10, sessionCsrfToken.length())),
+                                        updatedCsrfToken.substring(0, Math.min(10, updatedCsrfToken.length())));
+                                }
+
+                                UserLookupResponse.LookupData lookupData = lookupResponse.getLookupData();
+                                logger.debug("Successfully performed user lookup. Identifier: {}", lookupData.getIdentifier());
+
+                                return pacer.pause(host, AcademiaPacer.Step.PASSWORD)
+                                        .then(completeLogin(password, lookupData, updatedCookies, updatedCsrfToken));
+                            });
+                });
+    }
+
+    private Mono<String> fetchLoginPage() {
+        return metrics.time(CalendarPipelineMetrics.Stage.SIGNIN_PAGE, call(AcademiaGovernor.Endpoint.SIGNIN_PAGE, webClient.get()
+                .uri(loginPageUrl)
                 .header(HttpHeaders.USER_AGENT, USER_AGENT)
                 .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
                 .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
@@ -98,54 +167,15 @@ public class AcademiaService {
                 .header("Upgrade-Insecure-Requests", "1")
                 .header(HttpHeaders.CACHE_CONTROL, "max-age=0")
                 .retrieve()
-                .toEntity(String.class)
-                .block();
-
-        if (initialResponse == null || !initialResponse.getStatusCode().is2xxSuccessful()) {
-            throw new IllegalStateException("Failed to get a valid response from the main login page. Status: " + (initialResponse != null ? initialResponse.getStatusCode() : "N/A"));
-        }
-
-        String sessionCookies = String.join("; ", initialResponse.getHeaders().getOrEmpty(HttpHeaders.SET_COOKIE));
-        String sessionCsrfToken = extractCsrfToken(sessionCookies);
-        logger.debug("Successfully obtained session cookies and CSRF token.");
-
-        // Add another small delay
-        try {
-            Thread.sleep(300 + (long)(Math.random() * 300));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        logger.debug("Step 2: Performing user lookup for username: {}", username);
-        ResponseEntity<UserLookupResponse> lookupResponseEntity = performUserLookup(username, sessionCookies, sessionCsrfToken);
-        
-        UserLookupResponse lookupResponse = lookupResponseEntity.getBody();
-        if (lookupResponse == null || lookupResponse.getLookupData() == null || lookupResponse.getLookupData().getIdentifier() == null) {
-            logger.error("User lookup failed. Response body: {}", lookupResponse);
-            throw new InvalidCredentialsException("User lookup failed. Invalid username.");
-        }
-        
-        String updatedCookies = combineCookies(sessionCookies, lookupResponseEntity.getHeaders().getOrEmpty(HttpHeaders.SET_COOKIE));
-        String updatedCsrfToken = extractCsrfToken(updatedCookies);
-        
-        if (!updatedCsrfToken.equals(sessionCsrfToken)) {
-            logger.debug("CSRF token was refreshed during lookup. Old: {}, New: {}", 
-                sessionCsrfToken.substring(0, Math.min(10, sessionCsrfToken.length())), 
-                updatedCsrfToken.substring(0, Math.min(10, updatedCsrfToken.length())));
-        }
-
-        UserLookupResponse.LookupData lookupData = lookupResponse.getLookupData();
-        logger.debug("Successfully performed user lookup. Identifier: {}", lookupData.getIdentifier());
-
-        // Add delay before final login
-        try {
-            Thread.sleep(400 + (long)(Math.random() * 400));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        logger.debug("Step 3: Completing login for identifier: {}", lookupData.getIdentifier());
-        return completeLogin(password, lookupData, updatedCookies, updatedCsrfToken);
+                .toEntity(String.class))
+                .doOnSubscribe(subscription -> logger.debug("Step 1: Fetching initial cookies from {}", loginPageUrl))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Failed to get a valid response from the main login page. Status: N/A")))
+                .map(initialResponse -> {
+                    if (!initialResponse.getStatusCode().is2xxSuccessful()) {
+                        throw new IllegalStateException("Failed to get a valid response from the main login page. Status: " + initialResponse.getStatusCode());
+                    }
+                    return String.join("; ", initialResponse.getHeaders().getOrEmpty(HttpHeaders.SET_COOKIE));
+                }));
     }
 
     private String extractCsrfToken(String cookies) {
@@ -157,22 +187,23 @@ public class AcademiaService {
         throw new IllegalStateException("Could not find the 'iamcsr' cookie in the response headers.");
     }
 
-    private ResponseEntity<UserLookupResponse> performUserLookup(String username, String sessionCookies, String csrfToken) {
-        String lookupUrl = BASE_URL + "/accounts/p/40-10002227248/signin/v2/lookup/" + username;
+    private Mono<ResponseEntity<UserLookupResponse>> performUserLookup(String username, String sessionCookies, String csrfToken) {
+        logger.debug("Step 2: Performing user lookup for username: {}", username);
+        String lookupUrl = baseUrl + "/accounts/p/40-10002227248/signin/v2/lookup/" + username;
 
         MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
         formData.add("mode", "primary");
         formData.add("cli_time", String.valueOf(System.currentTimeMillis()));
         formData.add("servicename", "ZohoCreator");
         formData.add("service_language", "en");
-        formData.add("serviceurl", BASE_URL + "/portal/academia-academic-services/redirectFromLogin");
+        formData.add("serviceurl", baseUrl + "/portal/academia-academic-services/redirectFromLogin");
 
-        return webClient.post()
+        return metrics.time(CalendarPipelineMetrics.Stage.LOOKUP, call(AcademiaGovernor.Endpoint.LOOKUP, webClient.post()
                 .uri(lookupUrl)
                 .header(HttpHeaders.COOKIE, sessionCookies)
                 .header("x-zcsrf-token", "iamcsrcoo=" + csrfToken)
-                .header(HttpHeaders.REFERER, LOGIN_PAGE_URL)
-                .header(HttpHeaders.ORIGIN, BASE_URL)
+                .header(HttpHeaders.REFERER, loginPageUrl)
+                .header(HttpHeaders.ORIGIN, baseUrl)
                 .header(HttpHeaders.ACCEPT, "application/json, text/plain, */*")
                 .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
                 .header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING)
@@ -186,22 +217,23 @@ public class AcademiaService {
                 .contentType(MediaType.valueOf("application/x-www-form-urlencoded"))
                 .body(BodyInserters.fromFormData(formData))
                 .retrieve()
-                .toEntity(UserLookupResponse.class)
-                .block();
+                .toEntity(UserLookupResponse.class)));
     }
 
-    private String completeLogin(String password, UserLookupResponse.LookupData lookupData, String sessionCookies, String csrfToken) {
-        ResponseEntity<String> responseEntity = webClient.post()
+    private Mono<String> completeLogin(String password, UserLookupResponse.LookupData lookupData, String sessionCookies, String csrfToken) {
+        logger.debug("Step 3: Completing login for identifier: {}", lookupData.getIdentifier());
+        return metrics.time(CalendarPipelineMetrics.Stage.PASSWORD, call(AcademiaGovernor.Endpoint.PASSWORD, webClient.post()
             .uri(uriBuilder -> uriBuilder
-                .scheme("https")
-                .host("academia.srmist.edu.in")
+                .scheme(baseUri.getScheme())
+                .host(baseUri.getHost())
+                .port(baseUri.getPort())
                 .path("/accounts/p/40-10002227248/signin/v2/primary/{identifier}/password")
                 .queryParam("digest", lookupData.getDigest())
                 .build(lookupData.getIdentifier()))
             .header(HttpHeaders.COOKIE, sessionCookies) 
             .header("x-zcsrf-token", "iamcsrcoo=" + csrfToken)
-            .header(HttpHeaders.REFERER, LOGIN_PAGE_URL)
-            .header(HttpHeaders.ORIGIN, BASE_URL)
+            .header(HttpHeaders.REFERER, loginPageUrl)
+            .header(HttpHeaders.ORIGIN, baseUrl)
             .header(HttpHeaders.USER_AGENT, USER_AGENT)
             .header(HttpHeaders.ACCEPT, "application/json, text/plain, */*")
             .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
@@ -215,14 +247,15 @@ public class AcademiaService {
             .contentType(MediaType.APPLICATION_JSON)
             .bodyValue(Map.of("passwordauth", Map.of("password", password)))
             .retrieve()
-            .toEntity(String.class)
-            .block();
-
-        if (responseEntity == null) {
-            logger.error("Login failed! Response entity is null.");
-            throw new InvalidCredentialsException("Login failed: No response from authentication server.");
-        }
+            .toEntity(String.class))
+            .switchIfEmpty(Mono.error(() -> {
+                logger.error("Login failed! Response entity is null.");
+                return new InvalidCredentialsException("Login failed: No response from authentication server.");
+            }))
+            .map(responseEntity -> verifyLogin(responseEntity, sessionCookies)));
+    }
 
+    private String verifyLogin(ResponseEntity<String> responseEntity, String sessionCookies) {
         HttpStatus statusCode = (HttpStatus) responseEntity.getStatusCode();
         String responseBody = responseEntity.getBody();
         
@@ -234,7 +267,7 @@ public class AcademiaService {
             logger.error("Login failed! Response contains error. Body: {}", responseBody);
             if (responseBody.contains("SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED")) {
                  logger.error("Login failed due to SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED.");
-                 throw new InvalidCredentialsException("Login blocked by server security. This may be due to automated access detection. Please try again later or contact support.");
+                 throw new AcademiaLoginBlockedException("Login blocked by server security. This may be due to automated access detection. Please try again later or contact support.");
             }
             throw new InvalidCredentialsException("Invalid username or password.");
         }
@@ -249,38 +282,51 @@ public class AcademiaService {
     }
     
     public String fetchTimetable(String cookie) {
-        String timetableUrl = getTimetableUrl();
-        return fetchPageContent(timetableUrl, cookie);
+        return fetchTimetableAsync(cookie).block();
     }
 
-    public String fetchAcademicPlanner(String cookie) {
-        String academicPlannerUrl = getCalendarUrl();
-        return fetchPageContent(academicPlannerUrl, cookie);
+    public Mono<String> fetchTimetableAsync(String cookie) {
+        return metrics.time(CalendarPipelineMetrics.Stage.TIMETABLE_FETCH, fetchPageContent(getTimetableUrl(), cookie, "pageSanitizer.sanitize"))
+                .doOnNext(page -> metrics.recordPayload(CalendarPipelineMetrics.Payload.TIMETABLE_PAGE, page.length()));
     }
 
-    private String fetchPageContent(String url, String cookie) {
-        logger.info("Attempting to fetch content from: {}", url);
-        try {
-            return webClient.get().uri(url)
-                    .header(HttpHeaders.COOKIE, cookie)
-                    .header(HttpHeaders.USER_AGENT, USER_AGENT)
-                    .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                    .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
-                    .header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING)
-                    .header(HttpHeaders.REFERER, BASE_URL + "/portal/academia-academic-services")
-                    .header("sec-ch-ua", SEC_CH_UA)
-                    .header("sec-ch-ua-mobile", SEC_CH_UA_MOBILE)
-                    .header("sec-ch-ua-platform", SEC_CH_UA_PLATFORM)
-                    .header("Sec-Fetch-Dest", "document")
-                    .header("Sec-Fetch-Mode", "navigate")
-                    .header("Sec-Fetch-Site", "same-origin")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (WebClientResponseException.NotFound ex) {
-            logger.error("Page not found at {}", url);
-            throw new IllegalStateException("Calendar/Timetable page not found at " + url);
-        }
+    public Mono<String> fetchAcademicPlannerAsync(String cookie) {
+        return metrics.time(CalendarPipelineMetrics.Stage.PLANNER_FETCH, fetchPageContent(getCalendarUrl(), cookie, "zmlvalue"))
+                .doOnNext(page -> metrics.recordPayload(CalendarPipelineMetrics.Payload.PLANNER_PAGE, page.length()));
+    }
+
+    private Mono<String> fetchPageContent(String url, String cookie, String expectedMarker) {
+        return call(AcademiaGovernor.Endpoint.PAGE_FETCH, webClient.get().uri(url)
+                .header(HttpHeaders.COOKIE, cookie)
+                .header(HttpHeaders.USER_AGENT, USER_AGENT)
+                .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
+                .header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING)
+                .header(HttpHeaders.REFERER, baseUrl + "/portal/academia-academic-services")
+                .header("sec-ch-ua", SEC_CH_UA)
+                .header("sec-ch-ua-mobile", SEC_CH_UA_MOBILE)
+                .header("sec-ch-ua-platform", SEC_CH_UA_PLATFORM)
+                .header("Sec-Fetch-Dest", "document")
+                .header("Sec-Fetch-Mode", "navigate")
+                .header("Sec-Fetch-Site", "same-origin")
+                .retrieve()
+                .toEntity(String.class))
+                .doOnSubscribe(subscription -> logger.info("Attempting to fetch content from: {}", url))
+                .onErrorMap(WebClientResponseException.NotFound.class, ex -> {
+                    logger.error("Page not found at {}", url);
+                    return new IllegalStateException("Calendar/Timetable page not found at " + url);
+                })
+                .onErrorMap(ex -> ex instanceof WebClientResponseException.Unauthorized || ex instanceof WebClientResponseException.Forbidden,
+                        ex -> new AcademiaSessionExpiredException("Session rejected with status " + ((WebClientResponseException) ex).getStatusCode() + " at " + url))
+                .switchIfEmpty(Mono.error(() -> new AcademiaSessionExpiredException("Session is no longer valid for " + url)))
+                .map(response -> {
+                    // An expired session is answered with a redirect or the sign-in page instead of the requested content
+                    String body = response.getBody();
+                    if (response.getStatusCode().is3xxRedirection() || body == null || !body.contains(expectedMarker)) {
+                        throw new AcademiaSessionExpiredException("Session is no longer valid for " + url);
+                    }
+                    return body;
+                });
     }
 
     private String getTimetableUrl() {
@@ -294,12 +340,16 @@ public class AcademiaService {
             academicYear = currentYear + "_" + String.valueOf(currentYear + 1).substring(2); 
         }
         
-        String url = BASE_URL + "/srm_university/academia-academic-services/page/My_Time_Table_2023_24";
+        String url = baseUrl + "/srm_university/academia-academic-services/page/My_Time_Table_2023_24";
         logger.info("Generated Timetable URL: {}", url);
         return url;
     }
 
-    private String getCalendarUrl() {
+    /**
+     * The planner page is shared by every student and only changes with the semester.
+     * @return The academic planner URL for the current semester.
+     */
+    public String getCalendarUrl() {
         LocalDate currentDate = LocalDate.now();
         int currentYear = currentDate.getYear(); 
         int month = currentDate.getMonthValue(); 
@@ -314,32 +364,41 @@ public class AcademiaService {
             academicYearString = currentYear + "_" + String.valueOf(currentYear + 1).substring(2); 
         }
         
-        String url = BASE_URL + "/srm_university/academia-academic-services/page/Academic_Planner_" + academicYearString + "_" + semesterType;
+        String url = baseUrl + "/srm_university/academia-academic-services/page/Academic_Planner_" + academicYearString + "_" + semesterType;
         logger.info("Generated Calendar URL: {}", url);
         return url;
     }
     
     public void logout(String cookie) {
-        String logoutUrl = "https://academia.srmist.edu.in/accounts/p/10002227248/logout?servicename=ZohoCreator&serviceurl=https://academia.srmist.edu.in";
-        try {
-            ResponseEntity<Void> response = webClient.get()
+        logoutAsync(cookie).block();
+    }
+
+    /**
+     * Ends an Academia session without holding a thread while the request is paced and sent.
+     * Failures are logged rather than signalled: the session expires on Academia's side anyway.
+     * @param cookie The session cookie to log out.
+     * @return Completes once the logout request has finished or failed.
+     */
+    public Mono<Void> logoutAsync(String cookie) {
+        String logoutUrl = baseUrl + "/accounts/p/10002227248/logout?servicename=ZohoCreator&serviceurl=" + baseUrl;
+        return metrics.time(CalendarPipelineMetrics.Stage.LOGOUT, call(AcademiaGovernor.Endpoint.LOGOUT, webClient.get()
                 .uri(logoutUrl)
                 .header(HttpHeaders.COOKIE, cookie)
                 .header(HttpHeaders.USER_AGENT, USER_AGENT)
                 .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
                 .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
-                .header(HttpHeaders.REFERER, BASE_URL + "/portal/academia-academic-services")
+                .header(HttpHeaders.REFERER, baseUrl + "/portal/academia-academic-services")
                 .retrieve()
-                .toBodilessEntity()
-                .block();
-            
-            if (response != null && (response.getStatusCode().is2xxSuccessful() || response.getStatusCode().is3xxRedirection())) {
-                logger.info("Successfully initiated logout from Academia server. Status: " + response.getStatusCode());
-            } else {
-                logger.warn("Academia server returned an unexpected status for logout: " + (response != null ? response.getStatusCode() : "N/A"));
-            }
-        } catch (Exception e) {
-            logger.error("An error occurred while trying to log out from Academia server.", e);
-        }
+                .toBodilessEntity()))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode().is3xxRedirection()) {
+                        logger.info("Successfully initiated logout from Academia server. Status: " + response.getStatusCode());
+                    } else {
+                        logger.warn("Academia server returned an unexpected status for logout: " + response.getStatusCode());
+                    }
+                })
+                .doOnError(e -> logger.error("An error occurred while trying to log out from Academia server.", e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.CalSync.calSync.service;
+
+/**
+ * Thrown when Academia no longer accepts a session cookie, e.g. it redirects a page fetch back to sign-in.
+ */
+public class AcademiaSessionExpiredException extends RuntimeException {
+    public AcademiaSessionExpiredException(String message) {
+        super(message);
+    }
+}
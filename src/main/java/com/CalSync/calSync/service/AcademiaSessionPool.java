@@ -0,0 +1,137 @@
+package com.CalSync.calSync.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps one authenticated Academia session per user so refreshes can reuse the cookie
+ * instead of logging in and out every time.
+ */
+@Service
+public class AcademiaSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaSessionPool.class);
+
+    private final AcademiaService academiaService;
+    private final Duration idleTimeout;
+    private final Duration maxAge;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private static final class Session {
+        private final String cookie;
+        private final Instant createdAt;
+        private volatile Instant lastUsedAt;
+
+        private Session(String cookie) {
+            this.cookie = cookie;
+            this.createdAt = Instant.now();
+            this.lastUsedAt = createdAt;
+        }
+    }
+
+    public AcademiaSessionPool(AcademiaService academiaService,
+                               @Value("${calsync.session.idle-timeout:PT2H}") Duration idleTimeout,
+                               @Value("${calsync.session.max-age:PT12H}") Duration maxAge) {
+        this.academiaService = academiaService;
+        this.idleTimeout = idleTimeout;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Logs the user in and keeps the resulting session for later use.
+     * @param username The Academia username.
+     * @param password The plain-text password.
+     * @return The combined session cookie.
+     */
+    public String openSession(String username, String password) {
+        return openSessionAsync(username, password).block();
+    }
+
+    /**
+     * Non-blocking form of {@link #openSession}.
+     */
+    public Mono<String> openSessionAsync(String username, String password) {
+        return academiaService.loginAsync(username, password)
+                .map(cookie -> {
+                    Session replaced = sessions.put(username, new Session(cookie));
+                    if (replaced != null && !replaced.cookie.equals(cookie)) {
+                        // Still authenticated on Academia's side, e.g. after a re-subscribe, so end it instead of leaking it
+                        logger.debug("Replacing the previous Academia session for {}, logging it out.", username);
+                        academiaService.logoutAsync(replaced.cookie).subscribe();
+                    }
+                    return cookie;
+                });
+    }
+
+    /**
+     * Runs an action with the user's session cookie, logging in only if there is no usable session.
+     * If the action signals an {@link AcademiaSessionExpiredException}, the user is logged in again
+     * and the action is retried once.
+     * @param username The Academia username.
+     * @param password The plain-text password, only used if a new login is needed.
+     * @param action The work to perform with the session cookie.
+     * @return The result of the action.
+     */
+    public <T> Mono<T> withSessionAsync(String username, String password, Function<String, Mono<T>> action) {
+        return Mono.defer(() -> {
+            Session session = sessions.get(username);
+            if (session == null || !isUsable(session, Instant.now())) {
+                logger.debug("No usable session for {}, logging in.", username);
+                return openSessionAsync(username, password).flatMap(action);
+            }
+
+            session.lastUsedAt = Instant.now();
+            return action.apply(session.cookie)
+                    .onErrorResume(AcademiaSessionExpiredException.class, e -> {
+                        logger.info("Session for {} expired ({}), logging in again.", username, e.getMessage());
+                        sessions.remove(username, session);
+                        return openSessionAsync(username, password).flatMap(action);
+                    });
+        });
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Logs out and drops sessions that have been idle too long or are older than the maximum age.
+     */
+    @Scheduled(fixedDelayString = "${calsync.session.eviction-interval:PT5M}")
+    public void evictIdleSessions() {
+        Instant now = Instant.now();
+        List<String> evicted = new ArrayList<>();
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (!isUsable(session, now) && sessions.remove(entry.getKey(), session)) {
+                evicted.add(session.cookie);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            logger.info("Evicted {} idle Academia sessions, {} remain.", evicted.size(), sessions.size());
+            // The logouts are paced by the governor's LOGOUT rate, so a burst of expiries would hold the shared
+            // scheduler thread for minutes; send them one after another in the background instead
+            Flux.fromIterable(evicted)
+                    .concatMap(academiaService::logoutAsync)
+                    .subscribe();
+        }
+    }
+
+    private boolean isUsable(Session session, Instant now) {
+        // Purely local checks; Academia itself is only consulted when a fetch fails
+        return session.lastUsedAt.plus(idleTimeout).isAfter(now) && session.createdAt.plus(maxAge).isAfter(now);
+    }
+}
@@ -0,0 +1,14 @@
+package com.CalSync.calSync.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown without contacting Academia while its circuit breaker is open.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Academia is currently unavailable")
+public class AcademiaUnavailableException extends RuntimeException {
+    public AcademiaUnavailableException(String message) {
+        super(message);
+    }
+}
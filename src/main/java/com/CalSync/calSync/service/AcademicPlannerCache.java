@@ -0,0 +1,116 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.PlannerSnapshot;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide cache of the parsed academic planner. The planner page is the same for every student,
+ * so it is keyed by its URL (which encodes the academic year and semester) rather than by user.
+ *
+ * <p>Loading the planner needs some user's session, so every load runs through the loader of the
+ * caller that triggered it. Once an entry is older than {@code calsync.planner.refresh-interval} it
+ * keeps being served while the next caller's loader reloads it in the background; only after
+ * {@code calsync.planner.max-age} does a caller wait for a fresh load again.
+ */
+@Service
+public class AcademicPlannerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademicPlannerCache.class);
+
+    private static final class Entry {
+        private final PlannerSnapshot snapshot;
+        private final Instant loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(PlannerSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.loadedAt = Instant.now();
+        }
+    }
+
+    private final AsyncCache<String, Entry> cache;
+    private final Duration refreshInterval;
+
+    public AcademicPlannerCache(@Value("${calsync.planner.refresh-interval:PT6H}") Duration refreshInterval,
+                                @Value("${calsync.planner.max-age:P1D}") Duration maxAge) {
+        // Entries are refreshed on their own schedule, independent of how often individual users are refreshed
+        this.refreshInterval = refreshInterval;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(maxAge.compareTo(refreshInterval) < 0 ? refreshInterval : maxAge)
+                .maximumSize(8)
+                .buildAsync();
+    }
+
+    /**
+     * Returns the parsed planner for a URL, loading it at most once no matter how many callers miss
+     * at the same time. A failed load is not cached, so the next caller retries.
+     * @param plannerUrl The planner page URL.
+     * @param loader Fetches and parses the planner with the caller's own session, used only on a miss or refresh.
+     * @return The parsed planner and its content version.
+     */
+    public Mono<PlannerSnapshot> get(String plannerUrl, Supplier<Mono<List<DayEvent>>> loader) {
+        return Mono.defer(() -> {
+            AtomicBoolean ownLoad = new AtomicBoolean();
+            CompletableFuture<Entry> future = cache.get(plannerUrl, (url, executor) -> {
+                ownLoad.set(true);
+                logger.info("Academic planner cache miss for {}, loading.", url);
+                return load(loader);
+            });
+            // Suppress cancellation so one caller giving up does not cancel the load shared by the others
+            return Mono.fromFuture(future, true)
+                    .map(entry -> {
+                        refreshIfDue(plannerUrl, entry, loader);
+                        return entry.snapshot;
+                    })
+                    // A joined load that failed on the leader's expired session says nothing about ours,
+                    // so load again with our own loader instead of surfacing it and forcing a re-login
+                    .onErrorResume(e -> e instanceof AcademiaSessionExpiredException && !ownLoad.get(), e -> {
+                        logger.debug("Shared academic planner load failed ({}), loading with this caller's session.", e.getMessage());
+                        cache.asMap().remove(plannerUrl, future);
+                        return get(plannerUrl, loader);
+                    });
+        });
+    }
+
+    private void refreshIfDue(String plannerUrl, Entry entry, Supplier<Mono<List<DayEvent>>> loader) {
+        if (entry.loadedAt.plus(refreshInterval).isAfter(Instant.now()) || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Academic planner for {} is older than {}, refreshing in the background.", plannerUrl, refreshInterval);
+        load(loader).whenComplete((refreshed, error) -> {
+            if (error == null) {
+                // Unless a newer entry already took its place
+                cache.asMap().compute(plannerUrl, (url, current) -> current == null || holds(current, entry)
+                        ? CompletableFuture.completedFuture(refreshed) : current);
+            } else {
+                // Keep serving the current entry; the next caller tries again
+                logger.warn("Background academic planner refresh for {} failed: {}", plannerUrl, error.getMessage());
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    private static boolean holds(CompletableFuture<Entry> future, Entry entry) {
+        return future.isDone() && !future.isCompletedExceptionally() && future.join() == entry;
+    }
+
+    private static CompletableFuture<Entry> load(Supplier<Mono<List<DayEvent>>> loader) {
+        return loader.get()
+                .map(events -> new Entry(new PlannerSnapshot(events, Hashing.sha256Hex(events.toString()))))
+                .toFuture();
+    }
+}
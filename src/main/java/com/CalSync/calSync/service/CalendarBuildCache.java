@@ -0,0 +1,77 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.dto.CourseSlot;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Remembers each user's last successful build so that an unchanged timetable page can skip
+ * Jsoup parsing and ICS generation entirely.
+ */
+@Service
+public class CalendarBuildCache {
+
+    /**
+     * @param timetableHash Hash of the encoded {@code pageSanitizer.sanitize(...)} payload.
+     * @param plannerVersion Version of the academic planner the calendar was built against.
+     * @param timetable The timetable parsed from that payload.
+     * @param calendar The calendar generated from the timetable and planner.
+     */
+    public record Build(String timetableHash, String plannerVersion, List<DaySchedule> timetable, CachedCalendar calendar) {}
+
+    private static final int OBJECT_BYTES = 48;
+
+    private final Cache<String, Build> cache;
+
+    public CalendarBuildCache(@Value("${calsync.build-cache.max-weight-bytes:134217728}") long maxWeightBytes,
+                              @Value("${calsync.build-cache.expire-after-access:P7D}") Duration expireAfterAccess) {
+        // Weighs everything an entry keeps reachable. The calendar bytes are usually also held by
+        // CalendarCacheService, but this cache keeps them alive after that one evicts them.
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(CalendarBuildCache::weigh)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    // Approximate retained bytes: strings as one byte per character plus a header, and a fixed cost per object
+    private static int weigh(String token, Build build) {
+        long weight = stringWeight(token) + stringWeight(build.timetableHash()) + stringWeight(build.plannerVersion())
+                + build.calendar().content().length + build.calendar().gzipContent().length + stringWeight(build.calendar().etag());
+        for (DaySchedule day : build.timetable()) {
+            weight += OBJECT_BYTES + stringWeight(day.getDayOrder());
+            if (day.getClasses() == null) {
+                continue;
+            }
+            for (CourseSlot slot : day.getClasses()) {
+                weight += OBJECT_BYTES + stringWeight(slot.getSlot()) + stringWeight(slot.getCourseTitle()) + stringWeight(slot.getCourseCode())
+                        + stringWeight(slot.getCourseType()) + stringWeight(slot.getCourseCategory()) + stringWeight(slot.getCourseRoomNo())
+                        + stringWeight(slot.getTime());
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static long stringWeight(String value) {
+        return value == null ? 0 : OBJECT_BYTES + value.length();
+    }
+
+    public Build get(String token) {
+        return cache.getIfPresent(token);
+    }
+
+    public void put(String token, Build build) {
+        cache.put(token, build);
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+}
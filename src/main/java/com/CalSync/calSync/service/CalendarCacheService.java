@@ -0,0 +1,99 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class CalendarCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarCacheService.class);
+
+    private final Cache<String, CachedCalendar> cache;
+    private final Duration ttl;
+
+    public CalendarCacheService(@Value("${calsync.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                                @Value("${calsync.cache.ttl:PT6H}") Duration ttl,
+                                @Value("${calsync.cache.stale-window:P3D}") Duration staleWindow) {
+        // Weighted by payload size so a handful of huge calendars cannot crowd out everyone else.
+        // Entries outlive their TTL by the stale window so they can stand in while Academia is down.
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String token, CachedCalendar calendar) -> token.length() + calendar.content().length + calendar.gzipContent().length)
+                .expireAfterWrite(ttl.plus(staleWindow))
+                .build();
+        logger.info("Calendar cache configured with max weight {} bytes, TTL {} and stale window {}", maxWeightBytes, ttl, staleWindow);
+    }
+
+    /**
+     * Looks up the fresh cached calendar for a subscription token.
+     * @param token The unique subscription token.
+     * @return The cached calendar, or null if it is missing or older than the TTL.
+     */
+    public CachedCalendar get(String token) {
+        CachedCalendar calendar = cache.getIfPresent(token);
+        return calendar != null && isFresh(calendar) ? calendar : null;
+    }
+
+    public boolean isFresh(CachedCalendar calendar) {
+        return calendar.generatedAt().plus(ttl).isAfter(Instant.now());
+    }
+
+    /**
+     * Looks up the last good calendar for a token, even if it is past its TTL.
+     * @param token The unique subscription token.
+     * @return The cached calendar, or null if it is missing or beyond the stale window.
+     */
+    public CachedCalendar getStale(String token) {
+        return cache.getIfPresent(token);
+    }
+
+    /**
+     * Computes the ETag and the gzip variant for already encoded .ics content, without caching it.
+     * Compressing here means it happens once per generated calendar rather than once per poll.
+     * @param content The UTF-8 encoded iCalendar bytes.
+     * @return The encoded calendar.
+     */
+    public CachedCalendar create(byte[] content) {
+        return new CachedCalendar(content, gzip(content), "\"" + Hashing.sha256Hex(content) + "\"", Instant.now());
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        // The payload is compressed once and served many times, so spend the CPU on the best ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip calendar", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Stores an encoded calendar for the token.
+     * @param token The unique subscription token.
+     * @param calendar The encoded calendar.
+     * @return The cached entry.
+     */
+    public CachedCalendar put(String token, CachedCalendar calendar) {
+        cache.put(token, calendar);
+        return calendar;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+}
@@ -0,0 +1,128 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CalendarEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the VEVENTs back out of a calendar produced by {@link IcsWriter}, keyed by UID, each with a
+ * fingerprint of everything except its DTSTAMP. Working from the generated bytes means the index
+ * covers both output modes and always agrees with what the .ics feed serves.
+ */
+final class CalendarEventIndex {
+
+    /**
+     * @param event The parsed event.
+     * @param fingerprint Changes whenever the event's content does; DTSTAMP is left out.
+     */
+    record IndexedEvent(CalendarEvent event, long fingerprint) {}
+
+    private CalendarEventIndex() {
+    }
+
+    /**
+     * @param ics The UTF-8 encoded calendar.
+     * @return The events in feed order, keyed by UID.
+     */
+    static Map<String, IndexedEvent> index(byte[] ics) {
+        // IcsWriter never folds inside a character, so decoding before unfolding is safe
+        String unfolded = new String(ics, StandardCharsets.UTF_8).replace("\r\n ", "");
+        Map<String, IndexedEvent> events = new LinkedHashMap<>();
+        StringBuilder content = null;
+        String uid = null;
+        String summary = null;
+        Instant start = null;
+        Instant end = null;
+        List<Instant> additionalStarts = List.of();
+
+        int lineStart = 0;
+        while (lineStart < unfolded.length()) {
+            int lineEnd = unfolded.indexOf("\r\n", lineStart);
+            if (lineEnd < 0) {
+                lineEnd = unfolded.length();
+            }
+            String line = unfolded.substring(lineStart, lineEnd);
+            lineStart = lineEnd + 2;
+
+            if (line.equals("BEGIN:VEVENT")) {
+                content = new StringBuilder();
+                uid = summary = null;
+                start = end = null;
+                additionalStarts = List.of();
+                continue;
+            }
+            if (content == null) {
+                continue;
+            }
+            if (line.equals("END:VEVENT")) {
+                if (uid != null) {
+                    CalendarEvent event = new CalendarEvent(uid, summary, start, end, additionalStarts);
+                    events.put(uid, new IndexedEvent(event, Hashing.sha256Prefix(content.toString())));
+                }
+                content = null;
+                continue;
+            }
+            if (line.startsWith("DTSTAMP:")) {
+                continue;
+            }
+            content.append(line).append('\n');
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String value = line.substring(colon + 1);
+            switch (line.substring(0, colon)) {
+                case "UID" -> uid = value;
+                case "SUMMARY" -> summary = unescapeText(value);
+                case "DTSTART" -> start = parseUtcDateTime(value);
+                case "DTEND" -> end = parseUtcDateTime(value);
+                case "RDATE" -> {
+                    List<Instant> starts = new ArrayList<>();
+                    for (String rdate : value.split(",")) {
+                        starts.add(parseUtcDateTime(rdate));
+                    }
+                    additionalStarts = List.copyOf(starts);
+                }
+                default -> {
+                }
+            }
+        }
+        return events;
+    }
+
+    // Inverse of IcsWriter's TEXT escaping
+    private static String unescapeText(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                text.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    // yyyyMMdd'T'HHmmss'Z', the only form IcsWriter emits
+    private static Instant parseUtcDateTime(String value) {
+        return LocalDateTime.of(
+                Integer.parseInt(value, 0, 4, 10),
+                Integer.parseInt(value, 4, 6, 10),
+                Integer.parseInt(value, 6, 8, 10),
+                Integer.parseInt(value, 9, 11, 10),
+                Integer.parseInt(value, 11, 13, 10),
+                Integer.parseInt(value, 13, 15, 10)).toInstant(ZoneOffset.UTC);
+    }
+}
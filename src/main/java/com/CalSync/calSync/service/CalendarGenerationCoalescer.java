@@ -0,0 +1,66 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for calendar generation. While a generation for a token is in flight, every
+ * other request for that token joins it and receives the same result instead of starting its own
+ * login and scrape.
+ */
+@Service
+public class CalendarGenerationCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarGenerationCoalescer.class);
+
+    private final ConcurrentHashMap<String, Mono<CachedCalendar>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Runs the generation for a token, or joins the one already in flight.
+     * The entry is dropped as soon as the generation terminates, so a failure is shared only by the
+     * requests that were already waiting and the next request retries.
+     * @param token The unique subscription token.
+     * @param generation Builds the generation, used only when none is in flight.
+     * @return The shared generation result.
+     */
+    public Mono<CachedCalendar> execute(String token, Supplier<Mono<CachedCalendar>> generation) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<CachedCalendar> shared = inFlight.computeIfAbsent(token, key -> {
+                leader[0] = true;
+                // cache() keeps the upstream running even if the leader's subscriber cancels
+                return Mono.defer(generation)
+                        .doFinally(signal -> inFlight.remove(key))
+                        .cache();
+            });
+            if (leader[0]) {
+                leaders.incrementAndGet();
+            } else {
+                coalesced.incrementAndGet();
+                logger.debug("Joining in-flight calendar generation for token {}", token);
+            }
+            return shared;
+        });
+    }
+
+    public long getLeaders() {
+        return leaders.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,202 @@
+package com.CalSync.calSync.service;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the calendar pipeline: one timer per stage tagged with how the
+ * stage ended, size histograms for the pages fetched and calendars produced, and a counter of
+ * where each served calendar came from.
+ *
+ * <ul>
+ *     <li>{@code calsync.pipeline.stage} (timer): tags {@code stage} and {@code outcome}.</li>
+ *     <li>{@code calsync.pipeline.payload.size} (summary, bytes): tag {@code payload}.</li>
+ *     <li>{@code calsync.calendar.served} (counter): tag {@code source}.</li>
+ * </ul>
+ */
+@Service
+public class CalendarPipelineMetrics {
+
+    public enum Stage {
+        LOGIN("login"),
+        SIGNIN_PAGE("login.signin_page"),
+        LOOKUP("login.lookup"),
+        PASSWORD("login.password"),
+        TIMETABLE_FETCH("fetch.timetable"),
+        PLANNER_FETCH("fetch.planner"),
+        TIMETABLE_EXTRACT("extract.timetable"),
+        TIMETABLE_PARSE("parse.timetable"),
+        PLANNER_PARSE("parse.planner"),
+        ICS_GENERATION("generate.ics"),
+        LOGOUT("logout"),
+        GENERATION("generation");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        INVALID_CREDENTIALS,
+        BLOCKED,
+        SESSION_EXPIRED,
+        TIMEOUT,
+        BUSY,
+        CIRCUIT_OPEN,
+        CANCELLED,
+        ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Payload {
+        TIMETABLE_PAGE,
+        PLANNER_PAGE,
+        ICS,
+        ICS_GZIP;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Source {
+        CACHE,
+        SNAPSHOT,
+        STALE,
+        GENERATED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+
+    public CalendarPipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    /**
+     * Times a reactive stage from subscription until it terminates.
+     * @param stage The pipeline stage.
+     * @param source The lazy stage.
+     * @return The stage, recording its duration and outcome when it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> time(Stage stage, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = clock.monotonicTime();
+            return source
+                    .doOnSuccess(value -> record(stage, Outcome.SUCCESS, start))
+                    .doOnError(error -> record(stage, outcome(error), start))
+                    .doOnCancel(() -> record(stage, Outcome.CANCELLED, start));
+        });
+    }
+
+    /**
+     * Times a synchronous, CPU-bound stage.
+     * @param stage The pipeline stage.
+     * @param work The stage's work.
+     * @return Whatever the work returns.
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        long start = clock.monotonicTime();
+        try {
+            T result = work.get();
+            record(stage, Outcome.SUCCESS, start);
+            return result;
+        } catch (RuntimeException e) {
+            record(stage, outcome(e), start);
+            throw e;
+        }
+    }
+
+    /**
+     * @param payload What was measured.
+     * @param bytes Its size; for pages, the decoded body length in characters.
+     */
+    public void recordPayload(Payload payload, long bytes) {
+        DistributionSummary.builder("calsync.pipeline.payload.size")
+                .description("Size of pages fetched from Academia and of generated calendars")
+                .baseUnit("bytes")
+                .tag("payload", payload.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(16.0 * 1024 * 1024)
+                .register(registry)
+                .record(bytes);
+    }
+
+    public void recordServed(Source source) {
+        Counter.builder("calsync.calendar.served")
+                .description("Calendars served, by where they came from")
+                .tag("source", source.tag)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Maps a failure to its outcome tag. Wrapped causes are inspected too, since the pipeline wraps
+     * unexpected failures before they leave {@link SubscriptionService}.
+     * @param error The failure.
+     * @return The outcome it represents.
+     */
+    static Outcome outcome(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++, current = current.getCause()) {
+            if (current instanceof AcademiaLoginBlockedException) {
+                return Outcome.BLOCKED;
+            }
+            if (current instanceof InvalidCredentialsException) {
+                return Outcome.INVALID_CREDENTIALS;
+            }
+            if (current instanceof AcademiaSessionExpiredException) {
+                return Outcome.SESSION_EXPIRED;
+            }
+            if (current instanceof AcademiaBusyException) {
+                return Outcome.BUSY;
+            }
+            if (current instanceof AcademiaUnavailableException) {
+                return Outcome.CIRCUIT_OPEN;
+            }
+            if (current instanceof TimeoutException || current instanceof SocketTimeoutException
+                    || current instanceof io.netty.handler.timeout.TimeoutException
+                    || current instanceof io.netty.channel.ConnectTimeoutException) {
+                return Outcome.TIMEOUT;
+            }
+        }
+        return Outcome.ERROR;
+    }
+
+    private void record(Stage stage, Outcome outcome, long start) {
+        // Read the clock before the lookup, so registering a new tag combination is not timed
+        long elapsed = clock.monotonicTime() - start;
+        timer(stage, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Stage stage, Outcome outcome) {
+        return Timer.builder("calsync.pipeline.stage")
+                .description("Duration of each calendar pipeline stage")
+                .tag("stage", stage.tag)
+                .tag("outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(registry);
+    }
+}
@@ -0,0 +1,178 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.config.SchedulingConfig;
+import com.CalSync.calSync.model.User;
+import com.CalSync.calSync.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically regenerates every subscriber's calendar so that polls are served from the cache
+ * instead of scraping Academia on the request path.
+ */
+@Service
+@ConditionalOnProperty(name = "calsync.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class CalendarRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarRefreshScheduler.class);
+
+    private final UserRepository userRepository;
+    private final SubscriptionService subscriptionService;
+    private final int pageSize;
+    private final int parallelism;
+    private final Duration minSpacing;
+    private final Duration maxSpacing;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    // Progress counters, logged after every page and sweep
+    private final AtomicLong sweepsCompleted = new AtomicLong();
+    private final AtomicLong usersRefreshed = new AtomicLong();
+    private final AtomicLong usersFailed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long usersInCurrentSweep;
+    private volatile Instant lastSweepStartedAt;
+    private volatile Duration lastSweepDuration = Duration.ZERO;
+
+    public CalendarRefreshScheduler(UserRepository userRepository,
+                                    SubscriptionService subscriptionService,
+                                    @Value("${calsync.refresh.page-size:200}") int pageSize,
+                                    @Value("${calsync.refresh.parallelism:4}") int parallelism,
+                                    @Value("${calsync.refresh.min-spacing:PT0.2S}") Duration minSpacing,
+                                    @Value("${calsync.refresh.max-spacing:PT0.8S}") Duration maxSpacing,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.userRepository = userRepository;
+        this.subscriptionService = subscriptionService;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.minSpacing = minSpacing;
+        this.maxSpacing = maxSpacing.compareTo(minSpacing) < 0 ? minSpacing : maxSpacing;
+        // The semaphore below bounds parallelism, so with virtual threads each refresh simply gets its own
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("calendar-refresh-", 0).factory())
+                : Executors.newFixedThreadPool(parallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "calendar-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * Walks the user table page by page and regenerates each calendar with at most
+     * {@code calsync.refresh.parallelism} refreshes in flight. A fixed delay between sweeps
+     * guarantees they never overlap. The sweep sleeps and waits for permits for its whole run, so it
+     * runs on its own scheduler thread and never holds up session eviction.
+     */
+    @Scheduled(initialDelayString = "${calsync.refresh.initial-delay:PT1M}", fixedDelayString = "${calsync.refresh.interval:PT1H}",
+            scheduler = SchedulingConfig.REFRESH_SWEEP_SCHEDULER)
+    public void refreshAll() {
+        Instant startedAt = Instant.now();
+        lastSweepStartedAt = startedAt;
+        usersInCurrentSweep = 0;
+        logger.info("Starting calendar refresh sweep with parallelism {}", parallelism);
+
+        try {
+            Page<User> page;
+            int pageNumber = 0;
+            do {
+                page = userRepository.findAll(PageRequest.of(pageNumber++, pageSize, Sort.by("id")));
+                for (User user : page.getContent()) {
+                    permits.acquire();
+                    inFlight.incrementAndGet();
+                    usersInCurrentSweep++;
+                    executor.execute(() -> refreshUser(user));
+                    pause();
+                }
+                logger.info("Refresh sweep progress: page {}/{}, {} users submitted, {} in flight",
+                        pageNumber, page.getTotalPages(), usersInCurrentSweep, inFlight.get());
+            } while (page.hasNext());
+
+            // Wait for the tail of the sweep so the recorded duration covers every refresh
+            permits.acquire(parallelism);
+            permits.release(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Calendar refresh sweep interrupted after {} users", usersInCurrentSweep);
+            return;
+        }
+
+        lastSweepDuration = Duration.between(startedAt, Instant.now());
+        sweepsCompleted.incrementAndGet();
+        logger.info("Finished calendar refresh sweep of {} users in {}. Totals: {} refreshed, {} failed",
+                usersInCurrentSweep, lastSweepDuration, usersRefreshed.get(), usersFailed.get());
+    }
+
+    private void refreshUser(User user) {
+        try {
+            subscriptionService.refreshCalendar(user);
+            usersRefreshed.incrementAndGet();
+        } catch (Exception e) {
+            usersFailed.incrementAndGet();
+            logger.warn("Background refresh failed for user {}: {}", user.getUsername(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        // Jitter the spacing between users so we never hit Academia in a regular burst pattern
+        long min = minSpacing.toMillis();
+        long max = maxSpacing.toMillis();
+        long delay = max > min ? ThreadLocalRandom.current().nextLong(min, max + 1) : min;
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    public long getSweepsCompleted() {
+        return sweepsCompleted.get();
+    }
+
+    public long getUsersRefreshed() {
+        return usersRefreshed.get();
+    }
+
+    public long getUsersFailed() {
+        return usersFailed.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getUsersInCurrentSweep() {
+        return usersInCurrentSweep;
+    }
+
+    public Instant getLastSweepStartedAt() {
+        return lastSweepStartedAt;
+    }
+
+    public Duration getLastSweepDuration() {
+        return lastSweepDuration;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -3,28 +3,27 @@ package com.CalSync.calSync.service;
 import com.CalSync.calSync.dto.CourseSlot;
 import com.CalSync.calSync.dto.DayEvent;
 import com.CalSync.calSync.dto.DaySchedule;
-import net.fortuna.ical4j.model.Calendar;
-import net.fortuna.ical4j.model.DateTime;
-import net.fortuna.ical4j.model.component.VEvent;
-import net.fortuna.ical4j.model.property.ProdId;
-import net.fortuna.ical4j.model.property.Uid;
-import net.fortuna.ical4j.model.property.Version;
+import com.CalSync.calSync.dto.TimetableData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,12 +40,80 @@ public class CalendarService {
             .appendPattern("[h:mm a][hh:mm a]") // Handles both single digit (h) and double digit (hh) hours
             .toFormatter(Locale.ENGLISH); // Ensure English locale for AM/PM parsing
     
-    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Kolkata");
+    // Asia/Kolkata has kept a fixed +05:30 offset with no daylight saving since 1945
+    private static final ZoneOffset IST_OFFSET = ZoneOffset.ofHoursMinutes(5, 30);
+
+    // Start and end of every slot in TimetableData, as minutes after midnight
+    private record SlotTimes(int startMinute, int endMinute) {}
+
+    private static final Map<String, SlotTimes> SLOT_TIMES = new ConcurrentHashMap<>();
+
+    static {
+        for (List<TimetableData.DayDefinition> batch : TimetableData.BATCH_SLOTS.values()) {
+            for (TimetableData.DayDefinition day : batch) {
+                for (String time : day.time()) {
+                    SLOT_TIMES.computeIfAbsent(time, CalendarService::parseSlotTimes);
+                }
+            }
+        }
+    }
+
+    // Each thread reuses its own output buffer, so generation allocates little beyond the final array
+    private static final ThreadLocal<IcsWriter> WRITER = ThreadLocal.withInitial(IcsWriter::new);
+
+    private final boolean compact;
+
+    // Occurrences of one course in one slot, collapsed into a single master event in compact mode
+    private static final class EventSeries {
+        private final CourseSlot course;
+        private final long firstStart;
+        private final long firstEnd;
+        private long[] additionalStarts = new long[16];
+        private int additionalCount;
+
+        private EventSeries(CourseSlot course, long firstStart, long firstEnd) {
+            this.course = course;
+            this.firstStart = firstStart;
+            this.firstEnd = firstEnd;
+        }
+
+        private void add(long start) {
+            if (additionalCount == additionalStarts.length) {
+                additionalStarts = Arrays.copyOf(additionalStarts, additionalCount * 2);
+            }
+            additionalStarts[additionalCount++] = start;
+        }
+    }
+
+    public CalendarService() {
+        this(false);
+    }
+
+    /**
+     * @param compact Emit one master VEVENT per course and slot with an RDATE list of its occurrences,
+     *                instead of one VEVENT per occurrence.
+     */
+    @Autowired
+    public CalendarService(@Value("${calsync.calendar.compact:false}") boolean compact) {
+        this.compact = compact;
+    }
 
     public String generateIcsContent(List<DaySchedule> timetable, List<DayEvent> academicPlanner) {
-        Calendar calendar = new Calendar();
-        calendar.getProperties().add(new ProdId("-//CalSync//EN"));
-        calendar.getProperties().add(Version.VERSION_2_0);
+        return new String(generateIcs(timetable, academicPlanner), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates the UTF-8 encoded .ics for a timetable over the academic planner, streaming each
+     * VEVENT straight into a per-thread buffer instead of building an ical4j object model.
+     * @param timetable The user's timetable by day order.
+     * @param academicPlanner Every day of the semester with its day order.
+     * @return The encoded iCalendar bytes.
+     */
+    public byte[] generateIcs(List<DaySchedule> timetable, List<DayEvent> academicPlanner) {
+        IcsWriter writer = WRITER.get().reset();
+        writer.beginCalendar("-//CalSync//EN");
+        long dtStamp = Instant.now().getEpochSecond();
+        Map<String, EventSeries> seriesByCourseSlot = compact ? new LinkedHashMap<>() : null;
 
         // Create a quick lookup map for the timetable
         Map<String, DaySchedule> timetableMap = timetable.stream()
@@ -64,12 +131,34 @@ public class CalendarService {
             // ** LOGGING FOR VERIFICATION **
             if (daySchedule != null) {
                 logger.debug("Match found! Planner Day Order: '{}' matches Timetable Day Order.", plannerDayOrder);
-                // We have classes on this day, so create events for them
+                // We have classes on this day, so create events for them. The date is parsed once for all of them
+                LocalDate date;
+                try {
+                    date = LocalDate.parse(dayEvent.getDate(), DATE_FORMATTER);
+                } catch (DateTimeParseException e) {
+                    logger.error("Could not create events on date {}: {}", dayEvent.getDate(), e.getMessage());
+                    continue;
+                }
                 for (CourseSlot courseSlot : daySchedule.getClasses()) {
                     if (courseSlot.isClass()) {
                         try {
-                            VEvent event = createEventForCourse(courseSlot, dayEvent.getDate());
-                            calendar.getComponents().add(event);
+                            SlotTimes slotTimes = slotTimes(courseSlot.getTime());
+                            long start = epochSecond(date, slotTimes.startMinute());
+                            long end = epochSecond(date, slotTimes.endMinute());
+
+                            if (seriesByCourseSlot != null) {
+                                String courseSlotKey = courseSlot.getCourseCode() + courseSlot.getTime();
+                                EventSeries series = seriesByCourseSlot.get(courseSlotKey);
+                                if (series == null) {
+                                    seriesByCourseSlot.put(courseSlotKey, new EventSeries(courseSlot, start, end));
+                                } else {
+                                    series.add(start);
+                                }
+                            } else {
+                                // Create a stable, unique ID for the event
+                                String uidContent = dayEvent.getDate() + courseSlot.getCourseCode() + courseSlot.getTime();
+                                writer.event(dtStamp, start, end, eventName(courseSlot), generateUid(uidContent));
+                            }
                             eventCount++;
                         } catch (Exception e) {
                             logger.error("Could not create event for course {} on date {}: {}", 
@@ -83,38 +172,47 @@ public class CalendarService {
                 logger.debug("No match for Planner Day Order: '{}'", plannerDayOrder);
             }
         }
-        logger.info("Total calendar events generated: {}", eventCount);
-        return calendar.toString();
-    }
 
-    private VEvent createEventForCourse(CourseSlot course, String dateStr) {
-        LocalDate date = LocalDate.parse(dateStr, DATE_FORMATTER);
-        String[] timeParts = course.getTime().split(" - ");
-        
-        if (timeParts.length != 2) {
-            throw new IllegalArgumentException("Invalid time format: " + course.getTime());
+        if (seriesByCourseSlot != null) {
+            // Holidays never become occurrences because only planner days with a matching day order
+            // are added, so the RDATE list alone reproduces the expanded event set without EXDATEs
+            for (EventSeries series : seriesByCourseSlot.values()) {
+                String uidContent = series.course.getCourseCode() + series.course.getTime();
+                writer.recurringEvent(dtStamp, series.firstStart, series.firstEnd, eventName(series.course), generateUid(uidContent),
+                        series.additionalStarts, series.additionalCount);
+            }
+            logger.debug("Compacted {} occurrences into {} recurring events", eventCount, seriesByCourseSlot.size());
         }
+        writer.endCalendar();
+        logger.info("Total calendar events generated: {}", eventCount);
+        return writer.toByteArray();
+    }
 
-        LocalTime startTime = parseTimeWithFallback(timeParts[0].trim());
-        LocalTime endTime = parseTimeWithFallback(timeParts[1].trim());
-
-        java.util.Calendar startCal = java.util.Calendar.getInstance();
-        startCal.setTime(java.util.Date.from(date.atTime(startTime).atZone(ZONE_ID).toInstant()));
-
-        java.util.Calendar endCal = java.util.Calendar.getInstance();
-        endCal.setTime(java.util.Date.from(date.atTime(endTime).atZone(ZONE_ID).toInstant()));
+    private String eventName(CourseSlot course) {
+        return course.getCourseCode() + " - " + course.getCourseTitle();
+    }
 
-        String eventName = course.getCourseCode() + " - " + course.getCourseTitle();
-        VEvent event = new VEvent(new DateTime(startCal.getTime()), new DateTime(endCal.getTime()), eventName);
+    private static SlotTimes slotTimes(String time) {
+        SlotTimes slotTimes = SLOT_TIMES.get(time);
+        // Times outside TimetableData are parsed on first use; one that fails to parse is never cached
+        return slotTimes != null ? slotTimes : SLOT_TIMES.computeIfAbsent(time, CalendarService::parseSlotTimes);
+    }
 
-        // Create a stable, unique ID for the event
-        String uidContent = dateStr + course.getCourseCode() + course.getTime();
-        event.getProperties().add(new Uid(generateUid(uidContent)));
+    private static SlotTimes parseSlotTimes(String time) {
+        String[] timeParts = time.split(" - ");
+        if (timeParts.length != 2) {
+            throw new IllegalArgumentException("Invalid time format: " + time);
+        }
+        LocalTime start = parseTimeWithFallback(timeParts[0].trim());
+        LocalTime end = parseTimeWithFallback(timeParts[1].trim());
+        return new SlotTimes(start.getHour() * 60 + start.getMinute(), end.getHour() * 60 + end.getMinute());
+    }
 
-        return event;
+    private static long epochSecond(LocalDate date, int minuteOfDay) {
+        return date.atTime(minuteOfDay / 60, minuteOfDay % 60).toEpochSecond(IST_OFFSET);
     }
 
-    private LocalTime parseTimeWithFallback(String timeStr) {
+    private static LocalTime parseTimeWithFallback(String timeStr) {
         try {
             // First try with the flexible formatter
             return LocalTime.parse(timeStr, TIME_FORMATTER);
@@ -138,7 +236,7 @@ public class CalendarService {
         }
     }
 
-    private LocalTime parseTimeManually(String timeStr) {
+    private static LocalTime parseTimeManually(String timeStr) {
         // Manual parsing for edge cases
         String cleanTime = timeStr.trim().toUpperCase();
         logger.debug("Attempting manual parsing for time: '{}'", cleanTime);
@@ -176,18 +274,6 @@ public class CalendarService {
     }
 
     private String generateUid(String content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString() + "@calsync.com";
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Could not generate UID", e);
-        }
+        return Hashing.sha256Hex(content, "@calsync.com");
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.model.CalendarSnapshot;
+import com.CalSync.calSync.model.User;
+import com.CalSync.calSync.repository.CalendarSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Durable copy of each user's latest calendar. The in-memory caches are per instance and start
+ * empty, so a fresh instance falls back to this table before scraping Academia.
+ */
+@Service
+public class CalendarSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSnapshotService.class);
+
+    private final CalendarSnapshotRepository calendarSnapshotRepository;
+
+    public CalendarSnapshotService(CalendarSnapshotRepository calendarSnapshotRepository) {
+        this.calendarSnapshotRepository = calendarSnapshotRepository;
+    }
+
+    /**
+     * Loads the persisted calendar for a token. Blocking; call it off the event loop.
+     * @param token The unique subscription token.
+     * @return The stored calendar with its original generation time, if there is one.
+     */
+    public Optional<CachedCalendar> load(String token) {
+        return calendarSnapshotRepository.findBySubscriptionToken(token).map(snapshot -> {
+            logger.debug("Loaded calendar snapshot for token {} generated at {}", token, snapshot.getGeneratedAt());
+            return new CachedCalendar(gunzip(snapshot.getGzipContent()), snapshot.getGzipContent(), snapshot.getEtag(), snapshot.getGeneratedAt());
+        });
+    }
+
+    /**
+     * Persists a freshly generated calendar. When the content is unchanged only the generation time
+     * is updated, so steady-state refreshes do not rewrite the payload. Blocking; call it off the event loop.
+     * @param user The owning user.
+     * @param calendar The generated calendar.
+     */
+    public void save(User user, CachedCalendar calendar) {
+        String contentHash = Hashing.sha256Hex(calendar.content());
+        if (calendarSnapshotRepository.touch(user.getId(), contentHash, calendar.generatedAt()) > 0) {
+            return;
+        }
+        CalendarSnapshot snapshot = new CalendarSnapshot();
+        snapshot.setUserId(user.getId());
+        snapshot.setSubscriptionToken(user.getSubscriptionToken());
+        snapshot.setGzipContent(calendar.gzipContent());
+        snapshot.setContentHash(contentHash);
+        snapshot.setEtag(calendar.etag());
+        snapshot.setGeneratedAt(calendar.generatedAt());
+        calendarSnapshotRepository.save(snapshot);
+        logger.debug("Stored calendar snapshot for user {}", user.getUsername());
+    }
+
+    public void delete(User user) {
+        calendarSnapshotRepository.deleteById(user.getId());
+    }
+
+    private static byte[] gunzip(byte[] gzipContent) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipContent))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress calendar snapshot", e);
+        }
+    }
+}
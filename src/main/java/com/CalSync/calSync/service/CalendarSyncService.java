@@ -0,0 +1,149 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.dto.CalendarChanges;
+import com.CalSync.calSync.dto.CalendarEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental sync for calendar clients. Each distinct event set of a user gets a sync token; given
+ * the token a client last saw, only the events added, changed or removed since then are returned.
+ *
+ * <p>Per user, the fingerprints of the last {@code calsync.sync.history-size} distinct event sets are
+ * kept in memory. A token that has aged out, or was issued by another instance, answers with a reset:
+ * the full event set, flagged so the client replaces what it has.
+ */
+@Service
+public class CalendarSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSyncService.class);
+
+    // Rough heap cost per remembered fingerprint and per current event, for the cache weigher
+    private static final int FINGERPRINT_WEIGHT = 96;
+    private static final int EVENT_WEIGHT = 320;
+
+    // One distinct event set: UID to fingerprint, in feed order
+    private record Version(String syncToken, Map<String, Long> fingerprints) {}
+
+    // Guarded by its own monitor; a user's polls are rare enough that contention does not matter
+    private static final class History {
+        private String etag;
+        private Map<String, CalendarEventIndex.IndexedEvent> currentEvents = Map.of();
+        private final LinkedHashMap<String, Version> versions = new LinkedHashMap<>();
+
+        private Version current() {
+            return versions.lastEntry().getValue();
+        }
+
+        private int weight() {
+            int fingerprints = 0;
+            for (Version version : versions.values()) {
+                fingerprints += version.fingerprints().size();
+            }
+            return fingerprints * FINGERPRINT_WEIGHT + currentEvents.size() * EVENT_WEIGHT;
+        }
+    }
+
+    private final Cache<String, History> histories;
+    private final int historySize;
+
+    public CalendarSyncService(@Value("${calsync.sync.history-size:8}") int historySize,
+                               @Value("${calsync.sync.max-weight-bytes:67108864}") long maxWeightBytes,
+                               @Value("${calsync.sync.expire-after-access:P7D}") Duration expireAfterAccess) {
+        this.historySize = Math.max(1, historySize);
+        this.histories = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String token, History history) -> token.length() + history.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Computes what changed in a user's calendar since a sync token.
+     * @param token The unique subscription token.
+     * @param calendar The user's current calendar.
+     * @param since The sync token from the client's last sync, or null for a first sync.
+     * @return The changes, with the sync token of the current event set.
+     */
+    public CalendarChanges changes(String token, CachedCalendar calendar, String since) {
+        History history = histories.get(token, key -> new History());
+        synchronized (history) {
+            if (record(history, calendar)) {
+                // Weights are only computed on write, so write the mutated history back
+                histories.put(token, history);
+            }
+            Version current = history.current();
+            Version previous = since == null || since.isBlank() ? null : history.versions.get(since);
+            if (previous == null) {
+                if (since != null && !since.isBlank()) {
+                    logger.debug("Unknown sync token for subscription {}, sending a reset", token);
+                }
+                List<CalendarEvent> all = new ArrayList<>(history.currentEvents.size());
+                for (CalendarEventIndex.IndexedEvent indexed : history.currentEvents.values()) {
+                    all.add(indexed.event());
+                }
+                return new CalendarChanges(current.syncToken(), true, all, List.of(), List.of());
+            }
+            return diff(previous, current, history.currentEvents);
+        }
+    }
+
+    // Indexes the calendar unless it is the one seen last; returns whether anything was indexed
+    private boolean record(History history, CachedCalendar calendar) {
+        if (calendar.etag().equals(history.etag)) {
+            return false;
+        }
+        Map<String, CalendarEventIndex.IndexedEvent> events = CalendarEventIndex.index(calendar.content());
+        Map<String, Long> fingerprints = new LinkedHashMap<>(events.size() * 4 / 3 + 1);
+        StringBuilder versionContent = new StringBuilder(events.size() * 84);
+        for (CalendarEventIndex.IndexedEvent indexed : events.values()) {
+            fingerprints.put(indexed.event().uid(), indexed.fingerprint());
+            versionContent.append(indexed.event().uid()).append(':').append(Long.toHexString(indexed.fingerprint())).append('\n');
+        }
+        // Regenerations only change DTSTAMP, so identical event sets map to the same token
+        String syncToken = Hashing.sha256Hex(versionContent.toString()).substring(0, 32);
+
+        history.etag = calendar.etag();
+        history.currentEvents = events;
+        Version existing = history.versions.remove(syncToken);
+        history.versions.put(syncToken, existing != null ? existing : new Version(syncToken, fingerprints));
+        while (history.versions.size() > historySize) {
+            history.versions.pollFirstEntry();
+        }
+        return true;
+    }
+
+    private static CalendarChanges diff(Version previous, Version current, Map<String, CalendarEventIndex.IndexedEvent> currentEvents) {
+        if (previous == current) {
+            return new CalendarChanges(current.syncToken(), false, List.of(), List.of(), List.of());
+        }
+        List<CalendarEvent> added = new ArrayList<>();
+        List<CalendarEvent> changed = new ArrayList<>();
+        for (CalendarEventIndex.IndexedEvent indexed : currentEvents.values()) {
+            Long before = previous.fingerprints().get(indexed.event().uid());
+            if (before == null) {
+                added.add(indexed.event());
+            } else if (before != indexed.fingerprint()) {
+                changed.add(indexed.event());
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String uid : previous.fingerprints().keySet()) {
+            if (!currentEvents.containsKey(uid)) {
+                removed.add(uid);
+            }
+        }
+        return new CalendarChanges(current.syncToken(), false, added, changed, removed);
+    }
+}
@@ -4,46 +4,127 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * Encrypts stored Academia passwords with AES-GCM under a fresh random IV, in the form
+ * {@code v2:base64(iv || ciphertext || tag)}.
+ *
+ * <p>Values without the prefix were written with AES/ECB by earlier versions; they still decrypt, and
+ * {@link #isLegacy} tells callers to re-encrypt them.
+ *
+ * <p>A {@link Cipher} is stateful between {@code init} and {@code doFinal}, so instances are borrowed
+ * from a small pool for one operation instead of being shared. A per-thread instance would be
+ * created afresh for nearly every call once refreshes run on virtual threads, which are not reused;
+ * the pool keeps at most a few idle instances and creates extras only under contention.
+ */
 @Service
 public class EncryptionService {
 
-    @Value("${calsync.encryption.key}")
-    private String encryptionKey;
-
     private static final String ALGORITHM = "AES";
-    private Key key;
-    private Cipher cipher;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    // What Cipher.getInstance("AES") resolved to when the legacy values were written
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String PREFIX = "v2:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final int IDLE_CIPHERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final CipherPool GCM = new CipherPool(TRANSFORMATION);
+    private static final CipherPool LEGACY = new CipherPool(LEGACY_TRANSFORMATION);
+
+    private final Key key;
+    private final SecureRandom random = new SecureRandom();
 
-    @PostConstruct
-    public void init() throws Exception {
-        key = new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
-        cipher = Cipher.getInstance(ALGORITHM);
+    public EncryptionService(@Value("${calsync.encryption.key}") String encryptionKey) {
+        this.key = new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
     }
 
     public String encrypt(String data) {
         try {
-            cipher.init(Cipher.ENCRYPT_MODE, key);
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encryptedBytes);
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            byte[] plaintext = data.getBytes(StandardCharsets.UTF_8);
+            Cipher cipher = GCM.borrow();
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+                ByteBuffer output = ByteBuffer.allocate(IV_BYTES + cipher.getOutputSize(plaintext.length));
+                output.put(iv);
+                cipher.doFinal(ByteBuffer.wrap(plaintext), output);
+                return PREFIX + Base64.getEncoder().encodeToString(output.array());
+            } finally {
+                GCM.release(cipher);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error encrypting data", e);
         }
     }
 
+    /**
+     * @param encryptedData A value produced by {@link #encrypt}, or a legacy ECB value.
+     * @return The plaintext.
+     * @throws RuntimeException If the value was tampered with or encrypted under another key.
+     */
     public String decrypt(String encryptedData) {
         try {
-            cipher.init(Cipher.DECRYPT_MODE, key);
-            byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+            if (!encryptedData.startsWith(PREFIX)) {
+                byte[] decoded = Base64.getDecoder().decode(encryptedData);
+                Cipher cipher = LEGACY.borrow();
+                try {
+                    cipher.init(Cipher.DECRYPT_MODE, key);
+                    return new String(cipher.doFinal(decoded), StandardCharsets.UTF_8);
+                } finally {
+                    LEGACY.release(cipher);
+                }
+            }
+            byte[] decoded = Base64.getDecoder().decode(encryptedData.substring(PREFIX.length()));
+            Cipher cipher = GCM.borrow();
+            try {
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, decoded, 0, IV_BYTES));
+                return new String(cipher.doFinal(decoded, IV_BYTES, decoded.length - IV_BYTES), StandardCharsets.UTF_8);
+            } finally {
+                GCM.release(cipher);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error decrypting data", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @param encryptedData A stored encrypted value.
+     * @return Whether it predates authenticated encryption and should be re-encrypted.
+     */
+    public boolean isLegacy(String encryptedData) {
+        return !encryptedData.startsWith(PREFIX);
+    }
+
+    // Every use starts with init, so a released instance carries no state into the next borrower
+    private static final class CipherPool {
+        private final String transformation;
+        private final BlockingQueue<Cipher> idle = new ArrayBlockingQueue<>(IDLE_CIPHERS);
+
+        private CipherPool(String transformation) {
+            this.transformation = transformation;
+        }
+
+        private Cipher borrow() throws GeneralSecurityException {
+            Cipher cipher = idle.poll();
+            return cipher != null ? cipher : Cipher.getInstance(transformation);
+        }
+
+        private void release(Cipher cipher) {
+            // Beyond the idle limit the instance is simply dropped
+            idle.offer(cipher);
+        }
+    }
+}
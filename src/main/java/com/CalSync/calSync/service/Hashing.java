@@ -0,0 +1,62 @@
+package com.CalSync.calSync.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class Hashing {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // MessageDigest.getInstance walks the provider list on every call; each thread keeps its own digest instead
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    });
+
+    private Hashing() {
+    }
+
+    static String sha256Hex(String content) {
+        return sha256Hex(content, "");
+    }
+
+    static String sha256Hex(byte[] content) {
+        return hex(SHA_256.get().digest(content), "");
+    }
+
+    /**
+     * @param content The text to hash, encoded as UTF-8.
+     * @param suffix Appended to the lowercase hex digest, e.g. a UID domain.
+     * @return The hex digest followed by the suffix.
+     */
+    static String sha256Hex(String content, String suffix) {
+        return hex(SHA_256.get().digest(content.getBytes(StandardCharsets.UTF_8)), suffix);
+    }
+
+    /**
+     * @param content The text to hash, encoded as UTF-8.
+     * @return The first eight bytes of its SHA-256 digest, for compact fingerprints.
+     */
+    static long sha256Prefix(String content) {
+        byte[] hash = SHA_256.get().digest(content.getBytes(StandardCharsets.UTF_8));
+        long prefix = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            prefix = (prefix << 8) | (hash[i] & 0xFF);
+        }
+        return prefix;
+    }
+
+    private static String hex(byte[] hash, String suffix) {
+        char[] chars = new char[hash.length * 2 + suffix.length()];
+        for (int i = 0; i < hash.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+        suffix.getChars(0, suffix.length(), chars, hash.length * 2);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,220 @@
+package com.CalSync.calSync.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Streaming iCalendar serializer that writes content lines straight into a reusable UTF-8 buffer,
+ * folding lines at 75 octets as required by RFC 5545. It emits the same properties, in the same
+ * order and with the same TEXT escaping as the ical4j model it replaces.
+ *
+ * <p>Not thread-safe; {@link CalendarService} keeps one instance per thread.
+ */
+class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private byte[] buffer = new byte[64 * 1024];
+    private int length;
+    private int lineOctets;
+
+    IcsWriter reset() {
+        length = 0;
+        lineOctets = 0;
+        return this;
+    }
+
+    void beginCalendar(String prodId) {
+        line("BEGIN:VCALENDAR");
+        property("PRODID", prodId);
+        line("VERSION:2.0");
+    }
+
+    void endCalendar() {
+        line("END:VCALENDAR");
+    }
+
+    /**
+     * Writes a complete VEVENT.
+     * @param dtStampEpochSecond When the calendar was generated, in epoch seconds.
+     * @param startEpochSecond Event start, in epoch seconds.
+     * @param endEpochSecond Event end, in epoch seconds.
+     * @param summary The unescaped summary text.
+     * @param uid The stable event UID.
+     */
+    void event(long dtStampEpochSecond, long startEpochSecond, long endEpochSecond, String summary, String uid) {
+        line("BEGIN:VEVENT");
+        utcDateTime("DTSTAMP:", dtStampEpochSecond);
+        utcDateTime("DTSTART:", startEpochSecond);
+        utcDateTime("DTEND:", endEpochSecond);
+        property("SUMMARY", summary);
+        property("UID", uid);
+        line("END:VEVENT");
+    }
+
+    /**
+     * Writes a master VEVENT whose further occurrences are listed in an RDATE property. Every
+     * occurrence shares the duration of the first one.
+     * @param additionalStarts Start times of the occurrences after the first, in epoch seconds.
+     * @param additionalCount How many entries of {@code additionalStarts} are used.
+     */
+    void recurringEvent(long dtStampEpochSecond, long startEpochSecond, long endEpochSecond, String summary, String uid,
+                        long[] additionalStarts, int additionalCount) {
+        line("BEGIN:VEVENT");
+        utcDateTime("DTSTAMP:", dtStampEpochSecond);
+        utcDateTime("DTSTART:", startEpochSecond);
+        utcDateTime("DTEND:", endEpochSecond);
+        property("SUMMARY", summary);
+        property("UID", uid);
+        if (additionalCount > 0) {
+            ascii("RDATE:");
+            for (int i = 0; i < additionalCount; i++) {
+                if (i > 0) {
+                    append(',');
+                }
+                utcDateTimeValue(additionalStarts[i]);
+            }
+            endLine();
+        }
+        line("END:VEVENT");
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void line(String asciiLine) {
+        ascii(asciiLine);
+        endLine();
+    }
+
+    private void property(String name, String text) {
+        ascii(name);
+        append(':');
+        escapedText(text);
+        endLine();
+    }
+
+    private void utcDateTime(String prefix, long epochSecond) {
+        ascii(prefix);
+        utcDateTimeValue(epochSecond);
+        endLine();
+    }
+
+    private void utcDateTimeValue(long epochSecond) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        digits(date.getYear(), 4);
+        digits(date.getMonthValue(), 2);
+        digits(date.getDayOfMonth(), 2);
+        append('T');
+        digits(secondOfDay / 3600, 2);
+        digits((secondOfDay / 60) % 60, 2);
+        digits(secondOfDay % 60, 2);
+        append('Z');
+    }
+
+    private void digits(int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private void escapedText(String text) {
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',', '"' -> {
+                    append('\\');
+                    append(c);
+                }
+                case '\r' -> {
+                    if (i + 1 < n && text.charAt(i + 1) == '\n') {
+                        continue;
+                    }
+                    append(c);
+                }
+                case '\n' -> {
+                    append('\\');
+                    append('n');
+                }
+                default -> {
+                    if (c < 0x80) {
+                        append(c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        utf8(Character.toCodePoint(c, text.charAt(++i)));
+                    } else {
+                        utf8(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void utf8(int codePoint) {
+        if (Character.isSurrogate((char) codePoint) && codePoint <= 0xFFFF) {
+            // Unpaired surrogate, encoded the way String.getBytes(UTF_8) does
+            append('?');
+            return;
+        }
+        int octets = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+        // Never split a multi-byte character across a fold
+        if (lineOctets + octets > MAX_LINE_OCTETS) {
+            fold();
+        }
+        ensureCapacity(octets);
+        switch (octets) {
+            case 2 -> buffer[length++] = (byte) (0xC0 | (codePoint >> 6));
+            case 3 -> {
+                buffer[length++] = (byte) (0xE0 | (codePoint >> 12));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            }
+            default -> {
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            }
+        }
+        buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        lineOctets += octets;
+    }
+
+    private void ascii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            append(value.charAt(i));
+        }
+    }
+
+    private void append(char asciiChar) {
+        if (lineOctets == MAX_LINE_OCTETS) {
+            fold();
+        }
+        ensureCapacity(1);
+        buffer[length++] = (byte) asciiChar;
+        lineOctets++;
+    }
+
+    private void fold() {
+        ensureCapacity(3);
+        buffer[length++] = '\r';
+        buffer[length++] = '\n';
+        buffer[length++] = ' ';
+        lineOctets = 1;
+    }
+
+    private void endLine() {
+        ensureCapacity(2);
+        buffer[length++] = '\r';
+        buffer[length++] = '\n';
+        lineOctets = 0;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -8,29 +8,49 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class ParsingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ParsingService.class);
 
+    // Planner selectors, compiled once instead of on every parse
+    private static final Evaluator PLANNER_CONTAINER = QueryParser.parse("div." + PlannerEmbedScanner.CONTAINER_CLASS);
+    private static final Evaluator PLANNER_TABLE = QueryParser.parse("table[bgcolor='#FAFCFE']");
+    private static final Evaluator ROW = QueryParser.parse("tr");
+    private static final Evaluator DATA_ROWS = QueryParser.parse("tr:gt(0)");
+    private static final Evaluator HEADER_CELL = QueryParser.parse("th");
+    private static final Evaluator CELL = QueryParser.parse("td");
+    private static final Evaluator STRONG = QueryParser.parse("strong");
+
     private record CourseInfo(String courseTitle, String courseCode, String courseType, String courseCategory, String courseRoomNo) {}
 
     public List<DaySchedule> parseTimetable(String rawHtml) {
-        String cleanHtml = decodeHtml(extractEncodedContent(rawHtml));
+        return parseTimetablePayload(extractTimetablePayload(rawHtml));
+    }
+
+    /**
+     * Pulls the still-encoded {@code pageSanitizer.sanitize(...)} payload out of the timetable page.
+     * This is cheap compared to decoding and parsing it, so callers can hash it to detect changes.
+     * @param rawHtml The raw timetable page.
+     * @return The encoded payload, or an empty string if the page has none.
+     */
+    public String extractTimetablePayload(String rawHtml) {
+        return TimetablePayloadDecoder.extract(rawHtml);
+    }
+
+    public List<DaySchedule> parseTimetablePayload(String encodedPayload) {
+        String cleanHtml = TimetablePayloadDecoder.decode(encodedPayload);
         Document doc = Jsoup.parse(cleanHtml);
 
         String batchText = getTextFromTableRow(doc, "Batch:");
@@ -110,32 +130,41 @@ public class ParsingService {
         return timetable;
     }
 
+    /**
+     * Parses the academic planner. The embedded table is located by scanning the page text, so only
+     * the {@code zmlvalue} markup is ever built into a DOM, and all selectors are compiled once.
+     * @param rawHtml The raw academic planner page.
+     * @return Every planner day with its day order, in table order.
+     */
     public List<DayEvent> parseAcademicPlanner(String rawHtml) {
-        Document doc = Jsoup.parse(rawHtml);
-        Element zmlDiv = doc.selectFirst("div.zc-pb-embed-placeholder-content");
-        if (zmlDiv == null) {
-            logger.warn("Could not find the 'zmlvalue' div on the calendar page.");
-            return new ArrayList<>();
+        String zmlValue = PlannerEmbedScanner.zmlValue(rawHtml);
+        if (zmlValue == null) {
+            // The scanner found no container start tag; let the full HTML parser have the final say
+            Element zmlDiv = Jsoup.parse(rawHtml).selectFirst(PLANNER_CONTAINER);
+            if (zmlDiv == null) {
+                logger.warn("Could not find the 'zmlvalue' div on the calendar page.");
+                return new ArrayList<>();
+            }
+            zmlValue = zmlDiv.attr("zmlvalue");
         }
 
-        String zmlValue = zmlDiv.attr("zmlvalue");
         if (zmlValue.isEmpty()) {
             logger.warn("'zmlvalue' attribute is empty.");
             return new ArrayList<>();
         }
 
         Document innerDoc = Jsoup.parse(zmlValue);
-        Element mainTable = innerDoc.selectFirst("table[bgcolor='#FAFCFE']");
+        Element mainTable = innerDoc.selectFirst(PLANNER_TABLE);
         if (mainTable == null) {
             logger.warn("Could not find the main calendar table inside 'zmlvalue'.");
             return new ArrayList<>();
         }
 
         List<String> months = new ArrayList<>();
-        Element headerRow = mainTable.selectFirst("tr");
+        Element headerRow = mainTable.selectFirst(ROW);
         if (headerRow == null) return new ArrayList<>();
         
-        Elements ths = headerRow.select("th");
+        Elements ths = headerRow.select(HEADER_CELL);
         for (int i = 0; ; i++) {
             int monthNameThIndex = i * 5 + 2;
             if (monthNameThIndex >= ths.size()) break;
@@ -143,7 +172,7 @@ public class ParsingService {
             Element monthTh = ths.get(monthNameThIndex);
             if (monthTh == null) break;
 
-            Element strongElement = monthTh.selectFirst("strong");
+            Element strongElement = monthTh.selectFirst(STRONG);
             if (strongElement == null) continue;
 
             String monthName = strongElement.text().trim();
@@ -155,44 +184,46 @@ public class ParsingService {
         }
         logger.debug("Discovered months in planner: {}", months);
 
+        // The month headers are the same for every row, so each is split once, on first use
+        String[] monthAbbreviations = new String[months.size()];
+        String[] years = new String[months.size()];
+
         List<DayEvent> academicCalendar = new ArrayList<>();
-        Elements dataRows = mainTable.select("tr:gt(0)");
+        Elements dataRows = mainTable.select(DATA_ROWS);
 
         for (Element row : dataRows) {
-            Elements tds = row.select("td");
+            Elements tds = row.select(CELL);
             for (int monthIndex = 0; monthIndex < months.size(); monthIndex++) {
                 int offset = monthIndex * 5;
                 if (offset + 3 >= tds.size()) continue;
 
                 String date = tds.get(offset).text().trim();
-                if (date.isEmpty() || !date.matches("\\d+")) continue;
+                if (!isDigits(date)) continue;
 
                 String day = tds.get(offset + 1).text().trim();
                 
-                Element eventElement = tds.get(offset + 2).selectFirst("strong");
+                Element eventElement = tds.get(offset + 2).selectFirst(STRONG);
                 String event = (eventElement != null) ? eventElement.text().trim() : "";
                 
                 String dayOrder = tds.get(offset + 3).text().trim();
 
                 // ** CRITICAL FIX: Convert numeric day orders to "Day" format **
-                if (dayOrder.matches("\\d+")) {
+                if (isDigits(dayOrder)) {
                     dayOrder = "Day" + dayOrder;
                     logger.debug("Converted numeric day order to: {}", dayOrder);
                 }
 
                 // Create the full date string using the month name from header
-                String monthYear = months.get(monthIndex);
-                String monthName = monthYear.split(" ")[0];
-                
-                // Extract year from month header (handle formats like "September '25" or "September 2025")
-                String yearPart = monthYear.split(" ")[1].replaceAll("[^\\d]", "");
-                String year = (yearPart.length() == 2) ? "20" + yearPart : yearPart;
-                
+                if (years[monthIndex] == null) {
+                    String[] monthYear = months.get(monthIndex).split(" ");
+                    monthAbbreviations[monthIndex] = monthYear[0].substring(0, 3);
+                    // Extract year from month header (handle formats like "September '25" or "September 2025")
+                    String yearPart = digitsOnly(monthYear[1]);
+                    years[monthIndex] = (yearPart.length() == 2) ? "20" + yearPart : yearPart;
+                }
+
                 // Create date in dd-MMM-yyyy format
-                String fullDate = String.format("%s-%s-%s", 
-                    date.length() == 1 ? "0" + date : date, 
-                    monthName.substring(0, 3), 
-                    year);
+                String fullDate = (date.length() == 1 ? "0" + date : date) + "-" + monthAbbreviations[monthIndex] + "-" + years[monthIndex];
 
                 // Add all entries to match the reference implementation
                 academicCalendar.add(new DayEvent(fullDate, day, event, dayOrder));
@@ -206,26 +237,33 @@ public class ParsingService {
         return academicCalendar;
     }
 
-    private String getTextFromTableRow(Document doc, String label) {
-        Element cell = doc.selectFirst("td:contains(" + label + ")");
-        return (cell != null && cell.nextElementSibling() != null) ? cell.nextElementSibling().text().trim() : "";
+    // Equivalent to value.matches("\\d+") without the regex
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private String extractEncodedContent(String rawHtml) {
-        final Pattern pattern = Pattern.compile("pageSanitizer\\.sanitize\\('(.*)'\\);", Pattern.DOTALL);
-        final Matcher matcher = pattern.matcher(rawHtml);
-        return matcher.find() ? matcher.group(1) : "";
+    private static String digitsOnly(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
     }
 
-    private String decodeHtml(String encodedHtml) {
-        try {
-            String partiallyCleaned = encodedHtml
-                .replaceAll("\\\\x([0-9A-Fa-f]{2})", "%$1")
-                .replaceAll("\\\\'", "'")
-                .replaceAll("\\\\\"", "\"");
-            return URLDecoder.decode(partiallyCleaned, StandardCharsets.UTF_8.toString());
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Error decoding HTML", e);
-        }
+    private String getTextFromTableRow(Document doc, String label) {
+        Element cell = doc.selectFirst("td:contains(" + label + ")");
+        return (cell != null && cell.nextElementSibling() != null) ? cell.nextElementSibling().text().trim() : "";
     }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.CalSync.calSync.service;
+
+import org.jsoup.parser.Parser;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Finds the {@code zmlvalue} attribute of the academic planner's embed container by scanning the
+ * page text, so the surrounding page never has to be built into a DOM.
+ *
+ * <p>The page is walked tag by tag in document order: comments, end tags and declarations are
+ * skipped, and so is the content of raw-text elements such as {@code script} and {@code style},
+ * where markup is only text to the HTML parser. The first {@code div} start tag whose {@code class}
+ * attribute contains {@code zc-pb-embed-placeholder-content} wins, as with
+ * {@code selectFirst("div.zc-pb-embed-placeholder-content")}. When the page is too irregular to
+ * scan, callers fall back to a full parse.
+ */
+final class PlannerEmbedScanner {
+
+    static final String CONTAINER_CLASS = "zc-pb-embed-placeholder-content";
+
+    // Elements whose content the HTML parser reads as text up to the matching end tag
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "textarea", "title", "xmp", "iframe", "noembed", "noframes");
+
+    private PlannerEmbedScanner() {
+    }
+
+    private static final class StartTag {
+        private String name;
+        private String classValue;
+        private String zmlValue;
+        private int end;
+    }
+
+    /**
+     * @param page The raw academic planner page.
+     * @return The entity-decoded {@code zmlvalue}, an empty string if the container has none, or
+     *         null if no container start tag could be found.
+     */
+    static String zmlValue(String page) {
+        // Most pages without a planner never mention the class at all
+        if (!page.contains(CONTAINER_CLASS)) {
+            return null;
+        }
+        int n = page.length();
+        StartTag tag = new StartTag();
+        int at = page.indexOf('<');
+        while (at >= 0 && at + 1 < n) {
+            char next = page.charAt(at + 1);
+            if (page.startsWith("<!--", at)) {
+                // From the dashes of the opener, so that "<!-->" and "<!--->" close at once as in HTML
+                int end = page.indexOf("-->", at + 2);
+                if (end < 0) {
+                    return null;
+                }
+                at = page.indexOf('<', end + 3);
+            } else if (next == '/' || next == '!' || next == '?') {
+                // End tags, doctypes and processing instructions carry nothing we need
+                int end = page.indexOf('>', at + 2);
+                if (end < 0) {
+                    return null;
+                }
+                at = page.indexOf('<', end + 1);
+            } else if (isAsciiLetter(next)) {
+                if (!readStartTag(page, at, tag)) {
+                    return null;
+                }
+                if (tag.name.equalsIgnoreCase("div") && tag.classValue != null && hasClass(tag.classValue)) {
+                    return tag.zmlValue == null ? "" : Parser.unescapeEntities(tag.zmlValue, true);
+                }
+                int contentEnd = tag.end;
+                String name = tag.name.toLowerCase(Locale.ROOT);
+                if (RAW_TEXT_ELEMENTS.contains(name)) {
+                    contentEnd = indexOfEndTag(page, name, tag.end);
+                    if (contentEnd < 0) {
+                        return null;
+                    }
+                }
+                at = page.indexOf('<', contentEnd);
+            } else {
+                // A bare '<' in text
+                at = page.indexOf('<', at + 1);
+            }
+        }
+        return null;
+    }
+
+    // Reads the start tag at tagStart into tag; false if it is never closed
+    private static boolean readStartTag(String page, int tagStart, StartTag tag) {
+        int n = page.length();
+        int i = tagStart + 1;
+        while (i < n && isNameChar(page.charAt(i))) {
+            i++;
+        }
+        tag.name = page.substring(tagStart + 1, i);
+        tag.classValue = null;
+        tag.zmlValue = null;
+
+        while (true) {
+            while (i < n && (Character.isWhitespace(page.charAt(i)) || page.charAt(i) == '/')) {
+                i++;
+            }
+            if (i >= n) {
+                return false;
+            }
+            if (page.charAt(i) == '>') {
+                tag.end = i + 1;
+                return true;
+            }
+            int nameStart = i;
+            while (i < n && isNameChar(page.charAt(i)) && page.charAt(i) != '=') {
+                i++;
+            }
+            String name = page.substring(nameStart, i);
+            while (i < n && Character.isWhitespace(page.charAt(i))) {
+                i++;
+            }
+
+            int valueStart = i;
+            int valueEnd = i;
+            if (i < n && page.charAt(i) == '=') {
+                i++;
+                while (i < n && Character.isWhitespace(page.charAt(i))) {
+                    i++;
+                }
+                if (i < n && (page.charAt(i) == '"' || page.charAt(i) == '\'')) {
+                    valueStart = i + 1;
+                    valueEnd = page.indexOf(page.charAt(i), valueStart);
+                    if (valueEnd < 0) {
+                        return false;
+                    }
+                    i = valueEnd + 1;
+                } else {
+                    valueStart = i;
+                    while (i < n && !Character.isWhitespace(page.charAt(i)) && page.charAt(i) != '>') {
+                        i++;
+                    }
+                    valueEnd = i;
+                }
+            }
+
+            // Like the HTML parser, the first occurrence of a duplicated attribute wins
+            if (tag.classValue == null && name.equalsIgnoreCase("class")) {
+                tag.classValue = page.substring(valueStart, valueEnd);
+            } else if (tag.zmlValue == null && name.equalsIgnoreCase("zmlvalue")) {
+                tag.zmlValue = page.substring(valueStart, valueEnd);
+            }
+        }
+    }
+
+    // The position of the end tag closing a raw-text element, or -1 if the rest of the page is its content
+    private static int indexOfEndTag(String page, String name, int from) {
+        for (int at = page.indexOf("</", from); at >= 0; at = page.indexOf("</", at + 2)) {
+            int nameEnd = at + 2 + name.length();
+            if (page.regionMatches(true, at + 2, name, 0, name.length())
+                    && (nameEnd == page.length() || !isNameChar(page.charAt(nameEnd)))) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isNameChar(char c) {
+        return !Character.isWhitespace(c) && c != '/' && c != '>';
+    }
+
+    private static boolean hasClass(String classValue) {
+        int n = classValue.length();
+        int length = CONTAINER_CLASS.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && Character.isWhitespace(classValue.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && !Character.isWhitespace(classValue.charAt(i))) {
+                i++;
+            }
+            if (i - start == length && classValue.regionMatches(true, start, CONTAINER_CLASS, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,9 @@
 package com.CalSync.calSync.service;
 
+import com.CalSync.calSync.dto.CachedCalendar;
 import com.CalSync.calSync.dto.DayEvent;
 import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.dto.PlannerSnapshot;
 import com.CalSync.calSync.dto.SubscriptionRequest;
 import com.CalSync.calSync.model.User;
 import com.CalSync.calSync.repository.UserRepository;
@@ -9,9 +11,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,15 +31,35 @@ public class SubscriptionService {
     private final EncryptionService encryptionService;
     private final ParsingService parsingService;
     private final CalendarService calendarService;
+    private final CalendarCacheService calendarCacheService;
+    private final AcademiaSessionPool academiaSessionPool;
+    private final AcademicPlannerCache academicPlannerCache;
+    private final CalendarBuildCache calendarBuildCache;
+    private final CalendarGenerationCoalescer calendarGenerationCoalescer;
+    private final AcademiaCircuitBreaker academiaCircuitBreaker;
+    private final CalendarSnapshotService calendarSnapshotService;
+    private final CalendarPipelineMetrics metrics;
+    private final Duration staleDeadline;
     private static final Logger logger = LoggerFactory.getLogger(SubscriptionService.class);
 
+    private record FetchedPages(String timetablePayload, PlannerSnapshot academicPlanner) {}
+
     @Autowired
-    public SubscriptionService(UserRepository userRepository, AcademiaService academiaService, EncryptionService encryptionService, ParsingService parsingService, CalendarService calendarService) {
+    public SubscriptionService(UserRepository userRepository, AcademiaService academiaService, EncryptionService encryptionService, ParsingService parsingService, CalendarService calendarService, CalendarCacheService calendarCacheService, AcademiaSessionPool academiaSessionPool, AcademicPlannerCache academicPlannerCache, CalendarBuildCache calendarBuildCache, CalendarGenerationCoalescer calendarGenerationCoalescer, AcademiaCircuitBreaker academiaCircuitBreaker, CalendarSnapshotService calendarSnapshotService, CalendarPipelineMetrics metrics, @Value("${calsync.calendar.stale-deadline:PT5S}") Duration staleDeadline) {
         this.userRepository = userRepository;
         this.academiaService = academiaService;
         this.encryptionService = encryptionService;
         this.parsingService = parsingService;
         this.calendarService = calendarService;
+        this.calendarCacheService = calendarCacheService;
+        this.academiaSessionPool = academiaSessionPool;
+        this.academicPlannerCache = academicPlannerCache;
+        this.calendarBuildCache = calendarBuildCache;
+        this.calendarGenerationCoalescer = calendarGenerationCoalescer;
+        this.academiaCircuitBreaker = academiaCircuitBreaker;
+        this.calendarSnapshotService = calendarSnapshotService;
+        this.metrics = metrics;
+        this.staleDeadline = staleDeadline;
         logger.info("SubscriptionService has been instantiated with all dependencies.");
     }
 
@@ -41,21 +68,9 @@ public class SubscriptionService {
 
         // STEP 1: Validate credentials BEFORE doing anything else.
         // This will throw InvalidCredentialsException if login fails.
-        // We also immediately log out after validation.
-        String validationCookie = null;
-        try {
-            validationCookie = academiaService.loginAndGetCookie(request.getUsername(), request.getPassword());
-            logger.info("Credentials for {} are valid.", request.getUsername());
-        } catch (Exception e) {
-            // Let the exception propagate to be handled by the controller
-            throw e;
-        } finally {
-            if (validationCookie != null) {
-                academiaService.logout(validationCookie);
-                logger.info("Session for credential validation successfully terminated.");
-            }
-        }
-
+        // The validated session is kept in the pool so the first calendar poll can reuse it.
+        academiaSessionPool.openSession(request.getUsername(), request.getPassword());
+        logger.info("Credentials for {} are valid.", request.getUsername());
 
         // STEP 2: Now that credentials are valid, find or create the user.
         Optional<User> existingUserOpt = userRepository.findByUsername(request.getUsername());
@@ -65,6 +80,10 @@ public class SubscriptionService {
             User existingUser = existingUserOpt.get();
             existingUser.setPassword(encryptionService.encrypt(request.getPassword()));
             userRepository.save(existingUser);
+            // Start over from a fresh scrape; the sync history stays, since the token and event UIDs do not change
+            calendarCacheService.invalidate(existingUser.getSubscriptionToken());
+            calendarBuildCache.invalidate(existingUser.getSubscriptionToken());
+            calendarSnapshotService.delete(existingUser);
             return buildSubscriptionUrl(existingUser.getSubscriptionToken(), httpRequest);
         }
 
@@ -80,51 +99,193 @@ public class SubscriptionService {
         return buildSubscriptionUrl(newUser.getSubscriptionToken(), httpRequest);
     }
 
-    public String generateCalendar(String token) {
-        // logger.info("SubscriptionService: generateCalendar called for token {}", token);
-        String sessionCookie = null; // To store the cookie for the finally block
-        try {
-            User user = userRepository.findBySubscriptionToken(token)
-                    .orElseThrow(() -> new RuntimeException("Subscription token not found or invalid."));
-
-            // STEP 1: AUTHENTICATE
-            String decryptedPassword = encryptionService.decrypt(user.getPassword());
-            sessionCookie = academiaService.loginAndGetCookie(user.getUsername(), decryptedPassword);
-            // logger.info("Step 1/4: Authentication successful.");
-
-            // STEP 2: SCRAPE DATA
-            String timetableHtml = academiaService.fetchTimetable(sessionCookie);
-            String academicPlannerHtml = academiaService.fetchAcademicPlanner(sessionCookie);
-            // logger.info("Step 2/4: Raw HTML data scraped successfully.");
-
-            // STEP 3: PARSE DATA
-            List<DaySchedule> timetable = parsingService.parseTimetable(timetableHtml);
-            List<DayEvent> academicPlanner = parsingService.parseAcademicPlanner(academicPlannerHtml);
-            // logger.info("Step 3/4: HTML parsed into structured objects.");
-            
-            if (academicPlanner.isEmpty()) {
-                logger.warn("Academic planner parsing resulted in an empty list.");
-            } else {
-                logger.info("Parsed the first 5 days of the academic planner: {}", academicPlanner.subList(0, Math.min(5, academicPlanner.size())));
-            }
+    /**
+     * Returns the calendar for a token, serving it from the cache when possible. Only a cache miss
+     * goes through the full login, scrape and generation pipeline, and a slow Academia round trip
+     * never pins a request thread.
+     *
+     * <p>When only an expired copy is cached, it is served instead of waiting if Academia's circuit
+     * is open, if regeneration fails, or if regeneration misses {@code calsync.calendar.stale-deadline}.
+     * The regeneration keeps running in the background and refreshes the cache when it completes.
+     * An instance with nothing in memory first falls back to the snapshot persisted by whichever
+     * instance generated the calendar last.
+     * @param token The unique subscription token.
+     * @return The cached or freshly generated calendar.
+     */
+    public Mono<CachedCalendar> getCalendarAsync(String token) {
+        CachedCalendar cached = calendarCacheService.get(token);
+        if (cached != null) {
+            logger.debug("Serving cached calendar for token {} generated at {}", token, cached.generatedAt());
+            metrics.recordServed(CalendarPipelineMetrics.Source.CACHE);
+            return Mono.just(cached);
+        }
+        CachedCalendar stale = calendarCacheService.getStale(token);
+        if (stale != null) {
+            return serveStaleOrRevalidate(token, stale);
+        }
+        // Nothing in memory, e.g. right after a deploy: fall back to the persisted snapshot before scraping
+        return Mono.fromCallable(() -> calendarSnapshotService.load(token))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .onErrorResume(error -> {
+                    logger.warn("Could not load calendar snapshot for token {}: {}", token, error.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(snapshot -> {
+                    calendarCacheService.put(token, snapshot);
+                    if (calendarCacheService.isFresh(snapshot)) {
+                        logger.debug("Serving persisted calendar snapshot for token {} generated at {}", token, snapshot.generatedAt());
+                        metrics.recordServed(CalendarPipelineMetrics.Source.SNAPSHOT);
+                        return Mono.just(snapshot);
+                    }
+                    return serveStaleOrRevalidate(token, snapshot);
+                })
+                .switchIfEmpty(Mono.defer(() -> generateForToken(token))
+                        .doOnNext(calendar -> metrics.recordServed(CalendarPipelineMetrics.Source.GENERATED)));
+    }
+
+    private Mono<CachedCalendar> serveStaleOrRevalidate(String token, CachedCalendar stale) {
+        if (academiaCircuitBreaker.isOpen()) {
+            logger.info("Academia circuit is open, serving stale calendar for token {} generated at {}", token, stale.generatedAt());
+            // The coalesced generation is cached, so it completes and refreshes the cache even unobserved
+            generateForToken(token).subscribe(calendar -> {}, error -> logger.debug("Background revalidation failed for token {}: {}", token, error.getMessage()));
+            metrics.recordServed(CalendarPipelineMetrics.Source.STALE);
+            return Mono.just(stale);
+        }
+        return generateForToken(token)
+                .doOnNext(calendar -> metrics.recordServed(CalendarPipelineMetrics.Source.GENERATED))
+                .timeout(staleDeadline, Mono.fromSupplier(() -> {
+                    logger.info("Calendar regeneration for token {} exceeded {}, serving stale copy while it continues.", token, staleDeadline);
+                    metrics.recordServed(CalendarPipelineMetrics.Source.STALE);
+                    return stale;
+                }))
+                .onErrorResume(error -> {
+                    logger.warn("Calendar regeneration failed for token {}, serving stale copy generated at {}: {}", token, stale.generatedAt(), error.getMessage());
+                    metrics.recordServed(CalendarPipelineMetrics.Source.STALE);
+                    return Mono.just(stale);
+                });
+    }
+
+    private Mono<CachedCalendar> generateForToken(String token) {
+        // Concurrent misses for the same token share one login and scrape. The cache is checked again
+        // inside, since a generation may have finished between the caller's lookup and this one.
+        // The JPA repository is blocking, so look the user up on the elastic scheduler
+        return calendarGenerationCoalescer.execute(token, () -> Mono.justOrEmpty(calendarCacheService.get(token))
+                .switchIfEmpty(Mono.fromCallable(() -> userRepository.findBySubscriptionToken(token)
+                                .orElseThrow(() -> new RuntimeException("Subscription token not found or invalid.")))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(this::generateCalendarAsync)
+                        .map(calendar -> calendarCacheService.put(token, calendar))));
+    }
+
+    /**
+     * Regenerates a user's calendar and stores it so that polls are served precomputed content.
+     * Called by the background refresh engine; joins a poll-triggered generation already in flight.
+     * @param user The subscribed user.
+     * @return The freshly cached calendar.
+     */
+    public CachedCalendar refreshCalendar(User user) {
+        String token = user.getSubscriptionToken();
+        return calendarGenerationCoalescer.execute(token, () -> generateCalendarAsync(user)
+                        .map(calendar -> calendarCacheService.put(token, calendar)))
+                .block();
+    }
+
+    /**
+     * Runs the whole calendar pipeline (login, timetable fetch, planner lookup, parsing and ICS
+     * generation) as composed {@link Mono} stages. The planner is shared by every student and comes
+     * from {@link AcademicPlannerCache}, so normally only the timetable is fetched per user.
+     * @param user The subscribed user.
+     * @return The generated calendar, not yet cached.
+     */
+    public Mono<CachedCalendar> generateCalendarAsync(User user) {
+        String token = user.getSubscriptionToken();
+        return metrics.time(CalendarPipelineMetrics.Stage.GENERATION, Mono.fromCallable(() -> decryptPassword(user))
+                .flatMap(decryptedPassword -> academiaSessionPool.withSessionAsync(user.getUsername(), decryptedPassword, this::fetchPages))
+                .publishOn(Schedulers.parallel())
+                .map(pages -> buildCalendar(token, pages))
+                .flatMap(calendar -> persistSnapshot(user, calendar))
+                .onErrorMap(e -> !(e instanceof AcademiaBusyException || e instanceof AcademiaUnavailableException), e -> {
+                    logger.error("An unexpected error occurred in generateCalendar for token {}:", token, e);
+                    return new RuntimeException("Failed to generate calendar. See server logs for details.", e);
+                }));
+    }
+
+    // Passwords stored before authenticated encryption are re-encrypted the first time they are used.
+    // Only the row is updated: the User may be shared with the caller, so it is not mutated from another
+    // thread. A later call on the same stale instance just finds the row already migrated.
+    private String decryptPassword(User user) {
+        String stored = user.getPassword();
+        String password = encryptionService.decrypt(stored);
+        if (encryptionService.isLegacy(stored)) {
+            String migrated = encryptionService.encrypt(password);
+            Mono.fromCallable(() -> userRepository.updatePassword(user.getId(), stored, migrated))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(updated -> {
+                        if (updated > 0) {
+                            logger.info("Re-encrypted the stored password for user {}", user.getUsername());
+                        }
+                    }, error -> logger.warn("Could not re-encrypt the stored password for user {}: {}", user.getUsername(), error.getMessage()));
+        }
+        return password;
+    }
+
+    private Mono<CachedCalendar> persistSnapshot(User user, CachedCalendar calendar) {
+        // A failed write only costs other instances a scrape, so it never fails the generation
+        return Mono.fromRunnable(() -> calendarSnapshotService.save(user, calendar))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(error -> {
+                    logger.warn("Could not persist calendar snapshot for user {}: {}", user.getUsername(), error.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(calendar);
+    }
+
+    private Mono<FetchedPages> fetchPages(String sessionCookie) {
+        // Extraction and parsing are CPU-bound, so move them off the Netty event loop that delivered the body
+        Mono<String> timetablePayload = academiaService.fetchTimetableAsync(sessionCookie)
+                .publishOn(Schedulers.parallel())
+                .map(page -> metrics.time(CalendarPipelineMetrics.Stage.TIMETABLE_EXTRACT, () -> parsingService.extractTimetablePayload(page)));
+        Mono<PlannerSnapshot> academicPlanner = academicPlannerCache.get(academiaService.getCalendarUrl(), () ->
+                academiaService.fetchAcademicPlannerAsync(sessionCookie)
+                        .publishOn(Schedulers.parallel())
+                        .map(page -> metrics.time(CalendarPipelineMetrics.Stage.PLANNER_PARSE, () -> parsingService.parseAcademicPlanner(page))));
+        return Mono.zip(timetablePayload, academicPlanner, FetchedPages::new);
+    }
+
+    private CachedCalendar buildCalendar(String token, FetchedPages pages) {
+        String timetableHash = Hashing.sha256Hex(pages.timetablePayload());
+        PlannerSnapshot planner = pages.academicPlanner();
+        CalendarBuildCache.Build previous = calendarBuildCache.get(token);
 
-            // STEP 4: GENERATE CALENDAR
-            String icsContent = calendarService.generateIcsContent(timetable, academicPlanner);
-            logger.info("Step 4/4: iCalendar (.ics) content generated successfully.");
-
-            // logger.info("Generated ICS Content (first 300 chars): {}", icsContent.substring(0, Math.min(icsContent.length(), 300)));
-            return icsContent;
-
-        } catch (Exception e) {
-            logger.error("An unexpected error occurred in generateCalendar for token {}:", token, e);
-            throw new RuntimeException("Failed to generate calendar. See server logs for details.", e);
-        } finally {
-            // STEP 5: LOGOUT
-            if (sessionCookie != null) {
-                logger.info("Attempting to log out session for token {}", token);
-                academiaService.logout(sessionCookie);
+        // Timetables rarely change within a semester: when the payload is identical, skip Jsoup,
+        // and when the planner is unchanged as well, skip ICS generation too
+        List<DaySchedule> timetable;
+        if (previous != null && previous.timetableHash().equals(timetableHash)) {
+            if (previous.plannerVersion().equals(planner.version())) {
+                logger.info("Timetable and planner unchanged for token {}, reusing the previous calendar.", token);
+                CachedCalendar calendar = previous.calendar();
+                return new CachedCalendar(calendar.content(), calendar.gzipContent(), calendar.etag(), Instant.now());
             }
+            timetable = previous.timetable();
+        } else {
+            timetable = metrics.time(CalendarPipelineMetrics.Stage.TIMETABLE_PARSE, () -> parsingService.parseTimetablePayload(pages.timetablePayload()));
         }
+
+        List<DayEvent> academicPlanner = planner.events();
+        if (academicPlanner.isEmpty()) {
+            logger.warn("Academic planner parsing resulted in an empty list.");
+        } else {
+            logger.info("Parsed the first 5 days of the academic planner: {}", academicPlanner.subList(0, Math.min(5, academicPlanner.size())));
+        }
+
+        CachedCalendar calendar = metrics.time(CalendarPipelineMetrics.Stage.ICS_GENERATION,
+                () -> calendarCacheService.create(calendarService.generateIcs(timetable, academicPlanner)));
+        metrics.recordPayload(CalendarPipelineMetrics.Payload.ICS, calendar.content().length);
+        metrics.recordPayload(CalendarPipelineMetrics.Payload.ICS_GZIP, calendar.gzipContent().length);
+        calendarBuildCache.put(token, new CalendarBuildCache.Build(timetableHash, planner.version(), timetable, calendar));
+        logger.info("Step 4/4: iCalendar (.ics) content generated successfully.");
+        return calendar;
     }
 
     private String buildSubscriptionUrl(String token, HttpServletRequest request) {
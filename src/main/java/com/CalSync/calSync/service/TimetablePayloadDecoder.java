@@ -0,0 +1,115 @@
+package com.CalSync.calSync.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Extracts and decodes the {@code pageSanitizer.sanitize('...')} payload of the timetable page.
+ *
+ * <p>Behaves exactly like the original regex pipeline: a greedy {@code pageSanitizer\.sanitize\('(.*)'\);}
+ * match, then {@code \xNN} to {@code %NN}, {@code \'} and {@code \"} unescaping, and finally
+ * {@link java.net.URLDecoder} with UTF-8. It does all of that in one scan into a single builder,
+ * instead of copying the page once per pass.
+ */
+final class TimetablePayloadDecoder {
+
+    private static final String PREFIX = "pageSanitizer.sanitize('";
+    private static final String SUFFIX = "');";
+
+    private TimetablePayloadDecoder() {
+    }
+
+    /**
+     * @param page The raw timetable page.
+     * @return The still-encoded payload, or an empty string if the page has none.
+     */
+    static String extract(String page) {
+        // Greedy match: from the first opening call to the last closing "');" in the page
+        int start = page.indexOf(PREFIX);
+        if (start < 0) {
+            return "";
+        }
+        start += PREFIX.length();
+        int end = page.lastIndexOf(SUFFIX);
+        return end >= start ? page.substring(start, end) : "";
+    }
+
+    /**
+     * Decodes an encoded payload into HTML.
+     * @param payload The encoded payload.
+     * @return The decoded HTML.
+     * @throws IllegalArgumentException On a malformed {@code %} escape, as {@link java.net.URLDecoder} would.
+     */
+    static String decode(CharSequence payload) {
+        int n = payload.length();
+        StringBuilder out = new StringBuilder(n);
+        // Consecutive escaped bytes form one UTF-8 run, whichever escape syntax each one used
+        byte[] bytes = null;
+        int byteCount = 0;
+
+        int i = 0;
+        while (i < n) {
+            char c = payload.charAt(i);
+            int value = -1;
+            int length = 1;
+            if (c == '\\' && i + 1 < n) {
+                char next = payload.charAt(i + 1);
+                if (next == 'x' && i + 3 < n && isAsciiHex(payload.charAt(i + 2)) && isAsciiHex(payload.charAt(i + 3))) {
+                    value = Character.digit(payload.charAt(i + 2), 16) * 16 + Character.digit(payload.charAt(i + 3), 16);
+                    length = 4;
+                } else if (next == '\'' || next == '"') {
+                    c = next;
+                    length = 2;
+                }
+            } else if (c == '%') {
+                if (i + 2 >= n) {
+                    throw new IllegalArgumentException("URLDecoder: Incomplete trailing escape (%) pattern");
+                }
+                value = escapedByte(payload.charAt(i + 1), payload.charAt(i + 2));
+                length = 3;
+            } else if (c == '+') {
+                c = ' ';
+            }
+
+            if (value >= 0) {
+                if (bytes == null) {
+                    bytes = new byte[(n - i) / 3];
+                } else if (byteCount == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, byteCount * 2);
+                }
+                bytes[byteCount++] = (byte) value;
+            } else {
+                if (byteCount > 0) {
+                    out.append(new String(bytes, 0, byteCount, StandardCharsets.UTF_8));
+                    byteCount = 0;
+                }
+                out.append(c);
+            }
+            i += length;
+        }
+        if (byteCount > 0) {
+            out.append(new String(bytes, 0, byteCount, StandardCharsets.UTF_8));
+        }
+        return out.toString();
+    }
+
+    private static boolean isAsciiHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    // Mirrors URLDecoder's Integer.parseInt(hex, 16), which also accepts a sign
+    private static int escapedByte(char high, char low) {
+        int lowDigit = Character.digit(low, 16);
+        if (lowDigit >= 0 && (high == '+' || (high == '-' && lowDigit == 0))) {
+            return lowDigit;
+        }
+        if (high == '-' && lowDigit > 0) {
+            throw new IllegalArgumentException("URLDecoder: Illegal hex characters in escape (%) pattern - negative value");
+        }
+        int highDigit = Character.digit(high, 16);
+        if (highDigit < 0 || lowDigit < 0) {
+            throw new IllegalArgumentException("URLDecoder: Illegal hex characters in escape (%) pattern - " + high + low);
+        }
+        return highDigit * 16 + lowDigit;
+    }
+}
@@ -0,0 +1,62 @@
+package com.CalSync.calSync.benchmark;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.service.CalendarService;
+import com.CalSync.calSync.service.ParsingService;
+import com.CalSync.calSync.testsupport.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ICS generation for a parsed timetable over the full-semester planner, in both output modes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalendarBenchmark {
+
+    @Param({"1", "2"})
+    public int batch;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private CalendarService calendarService;
+    private List<DaySchedule> timetable;
+    private List<DayEvent> academicPlanner;
+
+    @Setup
+    public void setUp() {
+        Fixtures.silenceLogging();
+        ParsingService parsingService = new ParsingService();
+        calendarService = new CalendarService(compact);
+        timetable = parsingService.parseTimetable(Fixtures.timetable(batch));
+        academicPlanner = parsingService.parseAcademicPlanner(Fixtures.load(Fixtures.ACADEMIC_PLANNER));
+    }
+
+    @Benchmark
+    public byte[] generateIcs() {
+        return calendarService.generateIcs(timetable, academicPlanner);
+    }
+
+    @Benchmark
+    public String generateIcsContent() {
+        return calendarService.generateIcsContent(timetable, academicPlanner);
+    }
+}
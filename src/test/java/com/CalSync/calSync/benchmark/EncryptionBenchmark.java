@@ -0,0 +1,87 @@
+package com.CalSync.calSync.benchmark;
+
+import com.CalSync.calSync.service.EncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password decryption as a refresh sweep does it, once per user, on one thread and on every core.
+ * {@code sharedCipher} is the previous design, one {@link Cipher} made safe with a lock, kept as
+ * the baseline for the per-thread ciphers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    private static final String KEY = "0123456789abcdef";
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    private EncryptionService encryptionService;
+    private String encrypted;
+    private String legacyEncrypted;
+    private SecretKeySpec key;
+    private Cipher sharedCipher;
+
+    @Setup
+    public void setUp() throws Exception {
+        encryptionService = new EncryptionService(KEY);
+        encrypted = encryptionService.encrypt(PASSWORD);
+        key = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES");
+        sharedCipher = Cipher.getInstance("AES");
+        sharedCipher.init(Cipher.ENCRYPT_MODE, key);
+        legacyEncrypted = Base64.getEncoder().encodeToString(sharedCipher.doFinal(PASSWORD.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String decrypt() {
+        return encryptionService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String decryptAllCores() {
+        return encryptionService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String decryptLegacyAllCores() {
+        return encryptionService.decrypt(legacyEncrypted);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String encryptAllCores() {
+        return encryptionService.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String sharedCipherAllCores() throws Exception {
+        byte[] ciphertext = Base64.getDecoder().decode(legacyEncrypted);
+        synchronized (sharedCipher) {
+            sharedCipher.init(Cipher.DECRYPT_MODE, key);
+            return new String(sharedCipher.doFinal(ciphertext), StandardCharsets.UTF_8);
+        }
+    }
+}
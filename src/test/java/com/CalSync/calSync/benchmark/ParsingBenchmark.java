@@ -0,0 +1,80 @@
+package com.CalSync.calSync.benchmark;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.service.ParsingService;
+import com.CalSync.calSync.testsupport.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing hot paths of a calendar refresh: timetable payload extraction, payload decoding plus
+ * Jsoup parsing, and the academic planner.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Timetable {
+
+        @Param({"1", "2"})
+        public int batch;
+
+        private String page;
+        private String payload;
+
+        @Setup
+        public void setUp() {
+            Fixtures.silenceLogging();
+            page = Fixtures.timetable(batch);
+            payload = new ParsingService().extractTimetablePayload(page);
+        }
+    }
+
+    private ParsingService parsingService;
+    private String plannerPage;
+
+    @Setup
+    public void setUp() {
+        Fixtures.silenceLogging();
+        parsingService = new ParsingService();
+        plannerPage = Fixtures.load(Fixtures.ACADEMIC_PLANNER);
+    }
+
+    @Benchmark
+    public String extractTimetablePayload(Timetable timetable) {
+        return parsingService.extractTimetablePayload(timetable.page);
+    }
+
+    @Benchmark
+    public List<DaySchedule> parseTimetablePayload(Timetable timetable) {
+        return parsingService.parseTimetablePayload(timetable.payload);
+    }
+
+    @Benchmark
+    public List<DaySchedule> parseTimetable(Timetable timetable) {
+        return parsingService.parseTimetable(timetable.page);
+    }
+
+    @Benchmark
+    public List<DayEvent> parseAcademicPlanner() {
+        return parsingService.parseAcademicPlanner(plannerPage);
+    }
+}
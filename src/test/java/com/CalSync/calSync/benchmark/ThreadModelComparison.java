@@ -0,0 +1,114 @@
+package com.CalSync.calSync.benchmark;
+
+import com.CalSync.calSync.loadtest.AcademiaSimulator;
+import com.CalSync.calSync.service.AcademiaCircuitBreaker;
+import com.CalSync.calSync.service.AcademiaGovernor;
+import com.CalSync.calSync.service.AcademiaPacer;
+import com.CalSync.calSync.service.AcademiaService;
+import com.CalSync.calSync.service.CalendarPipelineMetrics;
+import com.CalSync.calSync.service.ParsingService;
+import com.CalSync.calSync.testsupport.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares platform and virtual threads on the blocking work a refresh worker does: log in, fetch
+ * and parse the timetable, fetch the planner and log out, through the real {@link AcademiaService}
+ * against a local {@link AcademiaSimulator}. The calendar endpoint itself is reactive and holds no
+ * thread while Academia answers, so this is where the thread model still matters.
+ *
+ * <p>Run with:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.CalSync.calSync.benchmark.ThreadModelComparison -Dexec.args="2000 200"}
+ * where the arguments are the number of concurrent refreshes and the platform pool size (Tomcat's
+ * default {@code server.tomcat.threads.max}). Simulator latency comes from the {@code simulator.*}
+ * system properties, 50-200 ms per request by default.
+ */
+public class ThreadModelComparison {
+
+    public static void main(String[] args) throws Exception {
+        int refreshes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int platformThreads = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Fixtures.silenceLogging();
+        // The JDK server behind the simulator closes keep-alive connections beyond 200 idle ones by default
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(refreshes));
+
+        try (AcademiaSimulator simulator = AcademiaSimulator.start(0, AcademiaSimulator.Settings.fromSystemProperties())) {
+            ConnectionProvider connections = ConnectionProvider.builder("comparison")
+                    .maxConnections(refreshes)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            AcademiaService academiaService = academiaService(simulator, connections, refreshes);
+            ParsingService parsingService = new ParsingService();
+
+            System.out.printf("%d concurrent refreshes against the simulator with %s%n", refreshes, AcademiaSimulator.Settings.fromSystemProperties());
+            // Warm the connection pool, JIT and parser before either measured run
+            try (ExecutorService warmup = Executors.newVirtualThreadPerTaskExecutor()) {
+                run(warmup, Math.min(refreshes, 200), academiaService, parsingService);
+            }
+            try (ExecutorService platform = Executors.newFixedThreadPool(platformThreads)) {
+                run(platform, refreshes, academiaService, parsingService).print("platform threads (" + platformThreads + ")");
+            }
+            try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                run(virtual, refreshes, academiaService, parsingService).print("virtual threads");
+            }
+            connections.dispose();
+        }
+        System.exit(0);
+    }
+
+    private record Result(int refreshes, int failed, long elapsedNanos, long[] latencies) {
+
+        void print(String mode) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-24s %7d ms  %8.1f refreshes/s  p50 %7.1f ms  p99 %7.1f ms  failed %d%n",
+                    mode, elapsedNanos / 1_000_000, refreshes / (elapsedNanos / 1e9),
+                    sorted[sorted.length / 2] / 1e6, sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6, failed);
+        }
+    }
+
+    private static Result run(ExecutorService executor, int refreshes, AcademiaService academiaService, ParsingService parsingService) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(refreshes);
+        AtomicInteger failed = new AtomicInteger();
+        long[] latencies = new long[refreshes];
+        long start = System.nanoTime();
+        for (int i = 0; i < refreshes; i++) {
+            int index = i;
+            executor.execute(() -> {
+                // Latency runs from submission, so time spent waiting for a pooled thread is included
+                try {
+                    String cookie = academiaService.loginAndGetCookie("student-" + index, "secret");
+                    parsingService.parseTimetable(academiaService.fetchTimetable(cookie));
+                    academiaService.fetchAcademicPlannerAsync(cookie).block();
+                    academiaService.logout(cookie);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return new Result(refreshes, failed.get(), System.nanoTime() - start, latencies);
+    }
+
+    private static AcademiaService academiaService(AcademiaSimulator simulator, ConnectionProvider connections, int refreshes) {
+        // Pacing, rate limits and the concurrency cap are off so that only the thread model is compared
+        AcademiaPacer pacer = new AcademiaPacer(false, "0-0", "0-0", "0-0", Duration.ZERO);
+        AcademiaGovernor governor = new AcademiaGovernor(refreshes, refreshes, Duration.ofMinutes(5), refreshes,
+                1_000_000, 1_000_000, 1_000_000, 1_000_000, 1_000_000);
+        AcademiaCircuitBreaker circuitBreaker = new AcademiaCircuitBreaker(Integer.MAX_VALUE, Duration.ofMinutes(1));
+        return new AcademiaService(WebClient.builder(), HttpClient.create(connections), pacer, governor, circuitBreaker,
+                new CalendarPipelineMetrics(new SimpleMeterRegistry()), simulator.baseUrl().toString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.CalSync.calSync.controller;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.service.AcademiaBusyException;
+import com.CalSync.calSync.service.AcademiaUnavailableException;
+import com.CalSync.calSync.service.CalendarSyncService;
+import com.CalSync.calSync.service.SubscriptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SubscriptionControllerTest {
+
+    private static final String TOKEN = "subscription";
+    private static final String ETAG = "\"abc123\"";
+    private static final String GZIP_ETAG = "\"abc123-gzip\"";
+
+    private final byte[] content = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8);
+    private final byte[] gzipContent = {0x1f, (byte) 0x8b, 8, 0};
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(subscriptionService.getCalendarAsync(TOKEN)).thenReturn(Mono.just(new CachedCalendar(content, gzipContent, ETAG, Instant.now())));
+        mockMvc = MockMvcBuilders.standaloneSetup(new SubscriptionController(subscriptionService, mock(CalendarSyncService.class))).build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "x-gzip", "deflate, gzip;q=0.8", "br;q=1.0, gzip;q=0.001", "*", "*;q=0.5", "identity;q=1, *;q=0.1"})
+    void servesTheGzipVariantWhenAccepted(String acceptEncoding) throws Exception {
+        calendar(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, GZIP_ETAG))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(gzipContent));
+    }
+
+    @ParameterizedTest
+    // An explicit gzip entry wins over the wildcard, in either order, and unparseable q-values count as 0
+    @ValueSource(strings = {"", "identity", "deflate, br", "gzip;q=0", "gzip;q=0.0, *", "*, gzip;q=0", "*;q=0", "gzip;q=abc"})
+    void servesThePlainVariantOtherwise(String acceptEncoding) throws Exception {
+        calendar(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/calendar;charset=UTF-8"))
+                .andExpect(content().bytes(content));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {ETAG, "W/" + ETAG, "\"other\", " + ETAG, "\"other\",W/" + ETAG, "*"})
+    void answersNotModifiedForAMatchingEtag(String ifNoneMatch) throws Exception {
+        calendar(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void comparesEtagsPerVariant() throws Exception {
+        // The gzip ETag does not validate the plain variant, and vice versa
+        calendar(HttpHeaders.IF_NONE_MATCH, GZIP_ETAG)
+                .andExpect(status().isOk());
+        calendar(HttpHeaders.IF_NONE_MATCH, ETAG, HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, GZIP_ETAG));
+        calendar(HttpHeaders.IF_NONE_MATCH, "W/" + GZIP_ETAG, HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void answersServiceUnavailableWithRetryAfterWhileAcademiaIsBusy() throws Exception {
+        when(subscriptionService.getCalendarAsync(TOKEN)).thenReturn(Mono.error(new AcademiaBusyException("queue full")));
+        calendar()
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+
+        when(subscriptionService.getCalendarAsync(TOKEN)).thenReturn(Mono.error(new AcademiaUnavailableException("circuit open")));
+        calendar()
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+    }
+
+    @Test
+    void answersNotFoundForAnErrorWithoutAMessage() throws Exception {
+        when(subscriptionService.getCalendarAsync(TOKEN)).thenReturn(Mono.error(new RuntimeException()));
+        calendar()
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Calendar not found."));
+    }
+
+    private ResultActions calendar(String... headers) throws Exception {
+        var request = get("/api/calendar/{token}", TOKEN);
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(request).andReturn()));
+    }
+}
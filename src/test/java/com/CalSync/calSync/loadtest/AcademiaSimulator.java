@@ -0,0 +1,302 @@
+package com.CalSync.calSync.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for academia.srmist.edu.in, for load tests that must not touch the real portal.
+ * It serves the endpoints {@code AcademiaService} calls, in the same shapes: the sign-in page
+ * setting an {@code iamcsr} cookie, the lookup and password steps, the timetable page with its
+ * {@code pageSanitizer.sanitize} payload, the academic planner with its {@code zmlvalue} embed, and logout.
+ *
+ * <p>Every response can be delayed, failed with a 503 or, for the password step, answered with
+ * SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED, at configurable rates. Usernames starting with
+ * {@code unknown} fail the lookup and the password {@code wrong} is rejected, so credential errors
+ * can be exercised deterministically.
+ *
+ * <p>Run standalone with {@code mvn -q exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.CalSync.calSync.loadtest.AcademiaSimulator -Dexec.args="8090"}
+ * and start CalSync with {@code calsync.academia.base-url=http://localhost:8090}. Injection is
+ * configured through the {@code simulator.*} system properties read by {@link Settings#fromSystemProperties()}.
+ */
+public final class AcademiaSimulator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcademiaSimulator.class);
+
+    private static final String ACCOUNTS = "/accounts/p/";
+    private static final String LOOKUP = "/accounts/p/40-10002227248/signin/v2/lookup/";
+    private static final Pattern PASSWORD = Pattern.compile("/accounts/p/40-10002227248/signin/v2/primary/([^/]+)/password");
+    private static final String SIGNIN = "/accounts/p/10002227248/signin";
+    private static final String LOGOUT = "/accounts/p/10002227248/logout";
+    private static final String PAGES = "/srm_university/academia-academic-services/page/";
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID=([^;\\s]+)");
+    private static final Pattern CSRF_HEADER = Pattern.compile("iamcsrcoo=(\\S+)");
+
+    /**
+     * @param minLatency Shortest delay added to every response.
+     * @param maxLatency Longest delay added to every response.
+     * @param errorRate Fraction of requests answered with a 503.
+     * @param blockRate Fraction of password submissions answered with SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED.
+     */
+    public record Settings(Duration minLatency, Duration maxLatency, double errorRate, double blockRate) {
+
+        public static Settings none() {
+            return new Settings(Duration.ZERO, Duration.ZERO, 0, 0);
+        }
+
+        public static Settings fromSystemProperties() {
+            return new Settings(Duration.parse(System.getProperty("simulator.min-latency", "PT0.05S")),
+                    Duration.parse(System.getProperty("simulator.max-latency", "PT0.2S")),
+                    Double.parseDouble(System.getProperty("simulator.error-rate", "0")),
+                    Double.parseDouble(System.getProperty("simulator.block-rate", "0")));
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Settings settings;
+    private final String[] timetables = {Fixture.load("timetable-batch1.html"), Fixture.load("timetable-batch2.html")};
+    private final String planner = Fixture.load("academic-planner.html");
+
+    // Issued CSRF tokens and live sessions; the real portal rejects anything it did not hand out
+    private final Set<String> csrfTokens = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    private AcademiaSimulator(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        // Latency is injected by sleeping, which costs nothing on a virtual thread
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * @param port The port to listen on, or 0 for any free port.
+     * @param settings Latency and failure injection.
+     * @return The running simulator.
+     */
+    public static AcademiaSimulator start(int port, Settings settings) throws IOException {
+        AcademiaSimulator simulator = new AcademiaSimulator(port, settings);
+        simulator.server.start();
+        logger.info("Academia simulator listening on {} with {}", simulator.baseUrl(), settings);
+        return simulator;
+    }
+
+    public URI baseUrl() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    /**
+     * @param endpoint One of signin, lookup, password, timetable, planner, logout or unknown.
+     * @return How many requests reached that endpoint, including injected failures.
+     */
+    public long requestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String endpoint = endpoint(path);
+            requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            delay();
+            if (chance(settings.errorRate())) {
+                send(exchange, 503, "text/html", "<html><body>Service Unavailable</body></html>");
+                return;
+            }
+
+            switch (endpoint) {
+                case "signin" -> signin(exchange);
+                case "lookup" -> lookup(exchange, path.substring(LOOKUP.length()));
+                case "password" -> password(exchange, body);
+                case "timetable" -> page(exchange, timetableFor(exchange));
+                case "planner" -> page(exchange, planner);
+                case "logout" -> logout(exchange);
+                default -> send(exchange, 404, "text/html", "<html><body>Not Found</body></html>");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String endpoint(String path) {
+        if (path.equals(SIGNIN)) {
+            return "signin";
+        }
+        if (path.startsWith(LOOKUP)) {
+            return "lookup";
+        }
+        if (PASSWORD.matcher(path).matches()) {
+            return "password";
+        }
+        if (path.equals(LOGOUT)) {
+            return "logout";
+        }
+        if (path.startsWith(PAGES + "My_Time_Table")) {
+            return "timetable";
+        }
+        if (path.startsWith(PAGES + "Academic_Planner_")) {
+            return "planner";
+        }
+        return path.startsWith(ACCOUNTS) || path.startsWith(PAGES) ? "unknown" : "other";
+    }
+
+    private void signin(HttpExchange exchange) throws IOException {
+        String csrfToken = UUID.randomUUID().toString();
+        csrfTokens.add(csrfToken);
+        exchange.getResponseHeaders().add("Set-Cookie", "iamcsr=" + csrfToken + "; Path=/; Secure");
+        exchange.getResponseHeaders().add("Set-Cookie", "_zcsr_tmp=" + csrfToken + "; Path=/; Secure");
+        send(exchange, 200, "text/html", "<html><head><title>Sign in</title></head><body><form id=\"login\"></form></body></html>");
+    }
+
+    private void lookup(HttpExchange exchange, String username) throws IOException {
+        if (!hasValidCsrf(exchange)) {
+            send(exchange, 400, "application/json", "{\"errors\":[{\"code\":\"INVALID_OAUTHSCOPE\"}],\"status_code\":400}");
+            return;
+        }
+        if (username.startsWith("unknown")) {
+            send(exchange, 200, "application/json", "{\"errors\":[{\"code\":\"U400\",\"message\":\"User does not exist\"}],\"status_code\":400}");
+            return;
+        }
+        // The identifier stands in for the user's numeric ZUID; the password step echoes it back in its path
+        String identifier = Integer.toUnsignedString(username.hashCode());
+        send(exchange, 200, "application/json",
+                "{\"lookup\":{\"identifier\":\"" + identifier + "\",\"digest\":\"" + UUID.randomUUID() + "\",\"loginid\":\"" + username + "\"},\"status_code\":201}");
+    }
+
+    private void password(HttpExchange exchange, String body) throws IOException {
+        if (!hasValidCsrf(exchange)) {
+            send(exchange, 400, "application/json", "{\"errors\":[{\"code\":\"INVALID_OAUTHSCOPE\"}],\"status_code\":400}");
+            return;
+        }
+        if (chance(settings.blockRate())) {
+            send(exchange, 200, "application/json", "{\"errors\":[{\"code\":\"SIGNIN_NON_TRUSTED_DOMAIN_BLOCKED\"}],\"status_code\":400}");
+            return;
+        }
+        Matcher matcher = PASSWORD.matcher(exchange.getRequestURI().getPath());
+        matcher.matches();
+        String identifier = matcher.group(1);
+        if (body.contains("\"wrong\"")) {
+            send(exchange, 200, "application/json", "{\"errors\":[{\"code\":\"INVALID_PASSWORD\"}],\"status_code\":400}");
+            return;
+        }
+        String session = UUID.randomUUID().toString();
+        sessions.put(session, identifier);
+        exchange.getResponseHeaders().add("Set-Cookie", "JSESSIONID=" + session + "; Path=/; HttpOnly");
+        send(exchange, 200, "application/json", "{\"passwordauth\":{\"code\":\"SIGNIN_SUCCESS\",\"redirect_uri\":\"/portal/academia-academic-services\"},\"status_code\":201}");
+    }
+
+    private String timetableFor(HttpExchange exchange) {
+        // Spread users over both batches so that both timetable layouts are exercised
+        String identifier = sessions.get(session(exchange));
+        return timetables[identifier == null ? 0 : Math.floorMod(identifier.hashCode(), timetables.length)];
+    }
+
+    private void page(HttpExchange exchange, String body) throws IOException {
+        if (!sessions.containsKey(session(exchange))) {
+            // An expired or missing session is sent back to sign-in, as the portal does
+            exchange.getResponseHeaders().add("Location", SIGNIN);
+            send(exchange, 302, "text/html", "");
+            return;
+        }
+        send(exchange, 200, "text/html;charset=UTF-8", body);
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        sessions.remove(session(exchange));
+        exchange.getResponseHeaders().add("Location", "/");
+        send(exchange, 302, "text/html", "");
+    }
+
+    private boolean hasValidCsrf(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("x-zcsrf-token");
+        Matcher matcher = CSRF_HEADER.matcher(header == null ? "" : header);
+        return matcher.matches() && csrfTokens.contains(matcher.group(1));
+    }
+
+    private static String session(HttpExchange exchange) {
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        Matcher matcher = SESSION_COOKIE.matcher(cookies == null ? "" : cookies);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private void delay() throws InterruptedException {
+        long min = settings.minLatency().toMillis();
+        long max = settings.maxLatency().toMillis();
+        long delay = max > min ? ThreadLocalRandom.current().nextLong(min, max + 1) : min;
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static boolean chance(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8090;
+        AcademiaSimulator simulator = start(port, Settings.fromSystemProperties());
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+    }
+
+    private static final class Fixture {
+
+        static String load(String name) {
+            try (InputStream in = AcademiaSimulator.class.getResourceAsStream("/fixtures/" + name)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing simulator fixture " + name);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.CalSync.calSync.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load driver for a running CalSync instance, normally one pointed at
+ * {@link AcademiaSimulator}. It first subscribes a set of users through {@code POST /api/subscribe},
+ * then polls {@code GET /api/calendar/{token}} at each requested concurrency level and prints
+ * throughput, latency percentiles and the status codes seen.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.CalSync.calSync.loadtest.LoadDriver \
+ *     -Dexec.args="http://localhost:8080 50 1,8,32,128 2000"
+ * </pre>
+ * Arguments: CalSync base URL, number of users, comma-separated concurrency levels and polls per
+ * level. {@code -Dload.gzip=true} sends {@code Accept-Encoding: gzip} like most calendar clients,
+ * and {@code -Dload.revalidate=true} replays each response's ETag in {@code If-None-Match}.
+ */
+public final class LoadDriver {
+
+    private static final Pattern SUBSCRIPTION_URL = Pattern.compile("\"subscriptionUrl\"\\s*:\\s*\"[^\"]*/api/calendar/([^\"/]+)\"");
+
+    private final URI baseUrl;
+    private final HttpClient client;
+    private final boolean gzip;
+    private final boolean revalidate;
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    private LoadDriver(URI baseUrl, boolean gzip, boolean revalidate) {
+        this.baseUrl = baseUrl;
+        this.gzip = gzip;
+        this.revalidate = revalidate;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Latencies and status codes of one phase.
+     */
+    private static final class Result {
+
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final Map<String, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+        Result(int requests) {
+            this.latencies = new long[requests];
+        }
+
+        void record(long nanos, String status) {
+            latencies[recorded.getAndIncrement()] = nanos;
+            statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        }
+
+        void print(String phase, int concurrency, long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, recorded.get());
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%-10s c=%-4d n=%-6d %8.1f req/s  p50 %7.1f ms  p90 %7.1f ms  p99 %7.1f ms  max %7.1f ms  %s%n",
+                    phase, concurrency, sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, new TreeMap<>(statuses));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            // Nearest-rank percentile
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    private List<String> subscribe(int users, int concurrency) throws Exception {
+        Result result = new Result(users);
+        List<String> tokens = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().factory())) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                String username = "loadtest-" + i;
+                futures.add(workers.submit(() -> subscribe(username, result)));
+            }
+            for (Future<String> future : futures) {
+                String token = future.get();
+                if (token != null) {
+                    tokens.add(token);
+                }
+            }
+        }
+        result.print("subscribe", concurrency, System.nanoTime() - started);
+        return tokens;
+    }
+
+    private String subscribe(String username, Result result) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + System.getProperty("load.password", "secret") + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/subscribe"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            result.record(System.nanoTime() - start, String.valueOf(response.statusCode()));
+            Matcher matcher = SUBSCRIPTION_URL.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : null;
+        } catch (IOException e) {
+            result.record(System.nanoTime() - start, e.getClass().getSimpleName());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void poll(List<String> tokens, int concurrency, int requests) throws InterruptedException {
+        Result result = new Result(requests);
+        AtomicInteger next = new AtomicInteger();
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                workers.execute(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        poll(tokens.get(i % tokens.size()), result);
+                    }
+                });
+            }
+        }
+        result.print("calendar", concurrency, System.nanoTime() - started);
+    }
+
+    private void poll(String token, Result result) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve("/api/calendar/" + token))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        String etag = etags.get(token);
+        if (revalidate && etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            result.record(System.nanoTime() - start, String.valueOf(response.statusCode()));
+            response.headers().firstValue("ETag").ifPresent(value -> etags.put(token, value));
+        } catch (IOException e) {
+            result.record(System.nanoTime() - start, e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI baseUrl = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int[] levels = Arrays.stream((args.length > 2 ? args[2] : "1,8,32").split(",")).mapToInt(Integer::parseInt).toArray();
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        LoadDriver driver = new LoadDriver(baseUrl, Boolean.getBoolean("load.gzip"), Boolean.getBoolean("load.revalidate"));
+        List<String> tokens = driver.subscribe(users, Arrays.stream(levels).max().orElse(1));
+        if (tokens.isEmpty()) {
+            System.err.println("No subscription succeeded, nothing to poll.");
+            System.exit(1);
+        }
+        for (int concurrency : levels) {
+            driver.poll(tokens, concurrency, requests);
+        }
+        System.exit(0);
+    }
+}
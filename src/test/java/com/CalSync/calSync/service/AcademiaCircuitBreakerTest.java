@@ -0,0 +1,44 @@
+package com.CalSync.calSync.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AcademiaCircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveUpstreamFailuresAndProbesAfterCooldown() throws InterruptedException {
+        AcademiaCircuitBreaker breaker = new AcademiaCircuitBreaker(2, Duration.ofMillis(50));
+        Mono<String> failing = Mono.error(new IOException("connection reset"));
+
+        assertThrows(RuntimeException.class, () -> breaker.execute(failing).block());
+        assertFalse(breaker.isOpen());
+        assertThrows(RuntimeException.class, () -> breaker.execute(failing).block());
+        assertTrue(breaker.isOpen());
+        assertThrows(AcademiaUnavailableException.class, () -> breaker.execute(Mono.just("skipped")).block());
+
+        Thread.sleep(60);
+        assertEquals("probe", breaker.execute(Mono.just("probe")).block());
+        assertEquals(AcademiaCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    void credentialAndAdmissionErrorsDoNotCount() {
+        AcademiaCircuitBreaker breaker = new AcademiaCircuitBreaker(1, Duration.ofMinutes(1));
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> breaker.execute(Mono.error(new InvalidCredentialsException("bad password"))).block());
+        assertThrows(AcademiaBusyException.class,
+                () -> breaker.execute(Mono.error(new AcademiaBusyException("queue full"))).block());
+
+        assertEquals(AcademiaCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,85 @@
+package com.CalSync.calSync.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AcademiaGovernorTest {
+
+    // Rates high enough that only the concurrency cap and queue come into play
+    private final AcademiaGovernor governor = new AcademiaGovernor(1, 1, Duration.ofSeconds(5), 100,
+            1000, 1000, 1000, 1000, 1000);
+
+    @Test
+    void queuesUpToTheLimitThenRejects() {
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<String> queuedResult = new AtomicReference<>();
+        AtomicReference<Throwable> rejection = new AtomicReference<>();
+
+        governor.execute(AcademiaGovernor.Endpoint.PAGE_FETCH, first.asMono()).subscribe();
+        governor.execute(AcademiaGovernor.Endpoint.PAGE_FETCH, Mono.just("second")).subscribe(queuedResult::set);
+        governor.execute(AcademiaGovernor.Endpoint.PAGE_FETCH, Mono.just("third")).subscribe(value -> {}, rejection::set);
+
+        assertEquals(0, governor.getAvailablePermits());
+        assertEquals(1, governor.getQueueLength());
+        assertInstanceOf(AcademiaBusyException.class, rejection.get());
+
+        first.tryEmitValue("first");
+
+        assertEquals("second", queuedResult.get());
+        assertEquals(1, governor.getAvailablePermits());
+        assertEquals(0, governor.getQueueLength());
+        assertEquals(1, governor.getRejected());
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueue() {
+        Sinks.One<String> first = Sinks.one();
+        governor.execute(AcademiaGovernor.Endpoint.LOGOUT, first.asMono()).subscribe();
+        governor.execute(AcademiaGovernor.Endpoint.LOGOUT, Mono.just("queued")).subscribe().dispose();
+
+        assertEquals(0, governor.getQueueLength());
+        first.tryEmitValue("done");
+        assertEquals(1, governor.getAvailablePermits());
+    }
+
+    @Test
+    void callsTurnedAwayByTheQueueKeepTheirRateToken() {
+        // Two tokens at one per second: the third call only runs at once if the rejected second left its token
+        AcademiaGovernor limited = new AcademiaGovernor(1, 0, Duration.ofSeconds(5), 2, 1, 1, 1, 1, 1);
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<Throwable> rejection = new AtomicReference<>();
+        AtomicReference<String> third = new AtomicReference<>();
+
+        limited.execute(AcademiaGovernor.Endpoint.LOOKUP, first.asMono()).subscribe();
+        limited.execute(AcademiaGovernor.Endpoint.LOOKUP, Mono.just("second")).subscribe(value -> {}, rejection::set);
+        first.tryEmitValue("first");
+        limited.execute(AcademiaGovernor.Endpoint.LOOKUP, Mono.just("third")).subscribe(third::set);
+
+        assertInstanceOf(AcademiaBusyException.class, rejection.get());
+        assertEquals("third", third.get());
+    }
+
+    @Test
+    void rateDelayCountsAgainstTheQueueWait() {
+        // The second call waits 0.5s for a token, leaving it 1s of the 1.5s max-wait to get a permit
+        AcademiaGovernor limited = new AcademiaGovernor(1, 1, Duration.ofMillis(1500), 1, 2, 2, 2, 2, 2);
+        limited.execute(AcademiaGovernor.Endpoint.PASSWORD, Sinks.<String>one().asMono()).subscribe();
+
+        long start = System.nanoTime();
+        assertThrows(AcademiaBusyException.class, () -> limited.execute(AcademiaGovernor.Endpoint.PASSWORD, Mono.just("queued")).block());
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(waited.compareTo(Duration.ofMillis(1400)) >= 0, "waited " + waited);
+        assertTrue(waited.compareTo(Duration.ofMillis(1900)) < 0, "waited " + waited);
+        assertEquals(0, limited.getQueueLength());
+    }
+}
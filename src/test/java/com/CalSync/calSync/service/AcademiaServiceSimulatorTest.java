@@ -0,0 +1,58 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.loadtest.AcademiaSimulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AcademiaServiceSimulatorTest {
+
+    private final ParsingService parsingService = new ParsingService();
+
+    @Test
+    void logsInAndScrapesThroughConfiguredBaseUrl() throws Exception {
+        try (AcademiaSimulator simulator = AcademiaSimulator.start(0, AcademiaSimulator.Settings.none())) {
+            AcademiaService academiaService = academiaService(simulator);
+
+            String cookie = academiaService.loginAndGetCookie("student", "secret");
+            List<DaySchedule> timetable = parsingService.parseTimetable(academiaService.fetchTimetable(cookie));
+            List<DayEvent> planner = parsingService.parseAcademicPlanner(academiaService.fetchAcademicPlannerAsync(cookie).block());
+            academiaService.logout(cookie);
+
+            assertFalse(timetable.isEmpty());
+            assertFalse(planner.isEmpty());
+            assertEquals(0, simulator.activeSessions());
+            assertThrows(AcademiaSessionExpiredException.class, () -> academiaService.fetchTimetable(cookie));
+        }
+    }
+
+    @Test
+    void surfacesRejectedAndBlockedLogins() throws Exception {
+        try (AcademiaSimulator simulator = AcademiaSimulator.start(0, AcademiaSimulator.Settings.none())) {
+            AcademiaService academiaService = academiaService(simulator);
+            assertThrows(InvalidCredentialsException.class, () -> academiaService.loginAndGetCookie("unknown-student", "secret"));
+            assertThrows(InvalidCredentialsException.class, () -> academiaService.loginAndGetCookie("student", "wrong"));
+        }
+        try (AcademiaSimulator simulator = AcademiaSimulator.start(0, new AcademiaSimulator.Settings(Duration.ZERO, Duration.ZERO, 0, 1))) {
+            assertThrows(AcademiaLoginBlockedException.class, () -> academiaService(simulator).loginAndGetCookie("student", "secret"));
+        }
+    }
+
+    private static AcademiaService academiaService(AcademiaSimulator simulator) {
+        AcademiaPacer pacer = new AcademiaPacer(false, "0-0", "0-0", "0-0", Duration.ZERO);
+        AcademiaGovernor governor = new AcademiaGovernor(4, 16, Duration.ofSeconds(5), 100, 1000, 1000, 1000, 1000, 1000);
+        AcademiaCircuitBreaker circuitBreaker = new AcademiaCircuitBreaker(5, Duration.ofMinutes(1));
+        return new AcademiaService(WebClient.builder(), HttpClient.create(), pacer, governor, circuitBreaker,
+                new CalendarPipelineMetrics(new SimpleMeterRegistry()), simulator.baseUrl().toString());
+    }
+}
@@ -0,0 +1,56 @@
+package com.CalSync.calSync.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AcademiaSessionPoolTest {
+
+    private final AcademiaService academiaService = mock(AcademiaService.class);
+
+    @Test
+    void logsOutTheSessionItReplaces() {
+        AcademiaSessionPool pool = new AcademiaSessionPool(academiaService, Duration.ofHours(2), Duration.ofHours(12));
+        when(academiaService.loginAsync("student", "secret")).thenReturn(Mono.just("first"), Mono.just("second"));
+        when(academiaService.logoutAsync(anyString())).thenReturn(Mono.empty());
+
+        assertEquals("first", pool.openSession("student", "secret"));
+        verify(academiaService, never()).logoutAsync(anyString());
+
+        // A re-subscribe logs in again while the first session is still live
+        assertEquals("second", pool.openSession("student", "secret"));
+        verify(academiaService).logoutAsync("first");
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void evictsWithoutWaitingForLogouts() {
+        AcademiaSessionPool pool = new AcademiaSessionPool(academiaService, Duration.ZERO, Duration.ofHours(12));
+        when(academiaService.loginAsync(anyString(), anyString())).thenAnswer(invocation -> Mono.just("cookie-" + invocation.getArgument(0)));
+        // Logouts that never complete, as when they queue behind the governor's LOGOUT rate
+        Sinks.Empty<Void> pending = Sinks.empty();
+        when(academiaService.logoutAsync(anyString())).thenReturn(pending.asMono());
+        pool.openSession("a", "secret");
+        pool.openSession("b", "secret");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), pool::evictIdleSessions);
+        assertEquals(0, pool.size());
+        // Sent one after another, so only the first is in flight until it completes
+        verify(academiaService, times(1)).logoutAsync(anyString());
+
+        pending.tryEmitEmpty();
+        verify(academiaService, times(2)).logoutAsync(anyString());
+        verify(academiaService, never()).logout(anyString());
+    }
+}
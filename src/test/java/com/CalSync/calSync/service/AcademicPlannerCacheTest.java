@@ -0,0 +1,71 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.PlannerSnapshot;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AcademicPlannerCacheTest {
+
+    private static final String URL = "https://academia.example/Academic_Planner_2025_26_ODD";
+
+    private final List<DayEvent> planner = List.of(new DayEvent("04-Aug-2025", "Mon", "", "Day1"));
+    private final List<DayEvent> revisedPlanner = List.of(new DayEvent("04-Aug-2025", "Mon", "Holiday", "-"));
+
+    @Test
+    void joinedCallersLoadWithTheirOwnSessionWhenTheLeadersHasExpired() {
+        AcademicPlannerCache cache = new AcademicPlannerCache(Duration.ofHours(6), Duration.ofDays(1));
+        Sinks.One<List<DayEvent>> leaderLoad = Sinks.one();
+        AtomicReference<Throwable> leaderError = new AtomicReference<>();
+        AtomicReference<PlannerSnapshot> joined = new AtomicReference<>();
+        AtomicInteger ownLoads = new AtomicInteger();
+
+        cache.get(URL, leaderLoad::asMono).subscribe(snapshot -> {}, leaderError::set);
+        cache.get(URL, () -> {
+            ownLoads.incrementAndGet();
+            return Mono.just(planner);
+        }).subscribe(joined::set);
+        assertNull(joined.get());
+
+        leaderLoad.tryEmitError(new AcademiaSessionExpiredException("Session is no longer valid"));
+
+        // Only the caller whose session failed sees the error; the joined caller loaded it itself
+        assertInstanceOf(AcademiaSessionExpiredException.class, leaderError.get());
+        assertEquals(planner, joined.get().events());
+        assertEquals(1, ownLoads.get());
+    }
+
+    @Test
+    void servesTheCurrentPlannerWhileRefreshingItInTheBackground() {
+        AcademicPlannerCache cache = new AcademicPlannerCache(Duration.ZERO, Duration.ofDays(1));
+        PlannerSnapshot first = cache.get(URL, () -> Mono.just(planner)).block();
+
+        Sinks.One<List<DayEvent>> refresh = Sinks.one();
+        AtomicInteger refreshes = new AtomicInteger();
+        PlannerSnapshot during = cache.get(URL, () -> {
+            refreshes.incrementAndGet();
+            return refresh.asMono();
+        }).block();
+        // A second caller does not start another refresh while one is in flight
+        cache.get(URL, () -> {
+            refreshes.incrementAndGet();
+            return Mono.just(revisedPlanner);
+        }).block();
+        refresh.tryEmitValue(revisedPlanner);
+        PlannerSnapshot after = cache.get(URL, () -> Mono.just(revisedPlanner)).block();
+
+        assertEquals(first.version(), during.version());
+        assertEquals(1, refreshes.get());
+        assertEquals(revisedPlanner, after.events());
+    }
+}
@@ -0,0 +1,55 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalendarGenerationCoalescerTest {
+
+    private final CalendarGenerationCoalescer coalescer = new CalendarGenerationCoalescer();
+
+    @Test
+    void concurrentRequestsShareOneGeneration() {
+        AtomicInteger generations = new AtomicInteger();
+        Sinks.One<CachedCalendar> result = Sinks.one();
+
+        Mono<CachedCalendar> first = coalescer.execute("token", () -> {
+            generations.incrementAndGet();
+            return result.asMono();
+        }).cache();
+        Mono<CachedCalendar> second = coalescer.execute("token", () -> {
+            generations.incrementAndGet();
+            return result.asMono();
+        }).cache();
+        first.subscribe();
+        second.subscribe();
+
+        CachedCalendar calendar = new CachedCalendar(new byte[0], new byte[0], "\"etag\"", Instant.now());
+        result.tryEmitValue(calendar);
+
+        assertSame(calendar, first.block());
+        assertSame(calendar, second.block());
+        assertEquals(1, generations.get());
+        assertEquals(1, coalescer.getLeaders());
+        assertEquals(1, coalescer.getCoalesced());
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    void failureIsNotRemembered() {
+        Mono<CachedCalendar> failing = coalescer.execute("token", () -> Mono.error(new IllegalStateException("down")));
+        assertEquals("down", assertThrows(IllegalStateException.class, failing::block).getMessage());
+
+        CachedCalendar calendar = new CachedCalendar(new byte[0], new byte[0], "\"etag\"", Instant.now());
+        assertSame(calendar, coalescer.execute("token", () -> Mono.just(calendar)).block());
+        assertEquals(2, coalescer.getLeaders());
+    }
+}
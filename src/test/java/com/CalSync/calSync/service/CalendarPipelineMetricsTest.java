@@ -0,0 +1,47 @@
+package com.CalSync.calSync.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalendarPipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CalendarPipelineMetrics metrics = new CalendarPipelineMetrics(registry);
+
+    @Test
+    void tagsEachStageWithItsOutcome() {
+        metrics.time(CalendarPipelineMetrics.Stage.LOOKUP, Mono.just("ok")).block();
+        assertThrows(InvalidCredentialsException.class, () -> metrics.time(CalendarPipelineMetrics.Stage.PASSWORD,
+                Mono.error(new AcademiaLoginBlockedException("blocked"))).block());
+        assertThrows(RuntimeException.class, () -> metrics.time(CalendarPipelineMetrics.Stage.GENERATION,
+                Mono.error(new RuntimeException("Failed to generate calendar.", new IllegalStateException(ReadTimeoutException.INSTANCE)))).block());
+        metrics.time(CalendarPipelineMetrics.Stage.TIMETABLE_FETCH, Mono.never())
+                .timeout(Duration.ofMillis(10), Mono.just("stale"))
+                .block();
+
+        assertEquals(1, count("login.lookup", "success"));
+        assertEquals(1, count("login.password", "blocked"));
+        assertEquals(1, count("generation", "timeout"));
+        assertEquals(1, count("fetch.timetable", "cancelled"));
+    }
+
+    @Test
+    void classifiesFailures() {
+        assertEquals(CalendarPipelineMetrics.Outcome.INVALID_CREDENTIALS, CalendarPipelineMetrics.outcome(new InvalidCredentialsException("bad password")));
+        assertEquals(CalendarPipelineMetrics.Outcome.SESSION_EXPIRED, CalendarPipelineMetrics.outcome(new AcademiaSessionExpiredException("redirected")));
+        assertEquals(CalendarPipelineMetrics.Outcome.BUSY, CalendarPipelineMetrics.outcome(new AcademiaBusyException("queue full")));
+        assertEquals(CalendarPipelineMetrics.Outcome.CIRCUIT_OPEN, CalendarPipelineMetrics.outcome(new AcademiaUnavailableException("open")));
+        assertEquals(CalendarPipelineMetrics.Outcome.ERROR, CalendarPipelineMetrics.outcome(new IllegalStateException("no iamcsr cookie")));
+    }
+
+    private long count(String stage, String outcome) {
+        return registry.get("calsync.pipeline.stage").tag("stage", stage).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,209 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CourseSlot;
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.dto.TimetableData;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.ProdId;
+import net.fortuna.ical4j.model.property.Uid;
+import net.fortuna.ical4j.model.property.Version;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static com.CalSync.calSync.testsupport.Fixtures.course;
+import static com.CalSync.calSync.testsupport.Fixtures.day;
+import static com.CalSync.calSync.testsupport.Fixtures.free;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalendarServiceTest {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Kolkata");
+
+    private final CalendarService calendarService = new CalendarService();
+
+    @Test
+    void streamingWriterMatchesIcal4jModel() throws Exception {
+        List<DaySchedule> timetable = List.of(
+                day("Day1", course("21CSC201J", "Data Structures, and; Algo\\rithms", "08:00 AM - 08:50 AM"),
+                        free("08:50 AM - 09:40 AM"),
+                        course("21MAB204T", "Probability and Queueing Theory with a title long enough to need folding", "12:30 PM - 01:20 PM")),
+                day("Day2", course("21LEH101T", "Français \"avancé\" – niveau 2 ✓ with quite a lot of trailing text here", "03:10 PM - 04:00 PM")));
+        List<DayEvent> planner = List.of(
+                new DayEvent("05-Aug-2025", "Tue", "", "Day1"),
+                new DayEvent("06-Aug-2025", "Wed", "Holiday", "-"),
+                new DayEvent("07-Aug-2025", "Thu", "", "Day2"),
+                new DayEvent("08-Aug-2025", "Fri", "", "Day1"));
+
+        byte[] ics = calendarService.generateIcs(timetable, planner);
+        String folded = new String(ics, StandardCharsets.UTF_8);
+
+        for (String line : folded.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, "Line exceeds 75 octets: " + line);
+        }
+        String reference = referenceCalendar(timetable, planner);
+        // The old model wrote floating local times, which clients read in their own zone; the writer pins them to UTC
+        assertTrue(reference.contains("\r\nDTSTART:20250805T023000\r\n"), reference);
+        assertTrue(reference.contains("\r\nDTEND:20250805T032000\r\n"), reference);
+        assertTrue(folded.contains("\r\nDTSTART:20250805T023000Z\r\n"), folded);
+        assertTrue(folded.contains("\r\nDTEND:20250805T032000Z\r\n"), folded);
+        assertEquals(withoutDtStamp(inUtc(reference)), withoutDtStamp(folded.replace("\r\n ", "")));
+    }
+
+    @Test
+    void precompiledSlotTimesMatchReferenceForEveryBatch() throws Exception {
+        // An unparseable date drops that day's classes and nothing else
+        List<DayEvent> planner = List.of(
+                new DayEvent("04-Aug-2025", "Mon", "", "Day 1"),
+                new DayEvent("05-Aug-2025", "Tue", "", "Day 2"),
+                new DayEvent("06-Aug-2025", "Wed", "", "Day 3"),
+                new DayEvent("07-Aug-2025", "Thu", "", "Day 4"),
+                new DayEvent("08-Aug-2025", "Fri", "", "Day 5"),
+                new DayEvent("not-a-date", "Tue", "", "Day 2"));
+
+        for (List<TimetableData.DayDefinition> batch : TimetableData.BATCH_SLOTS.values()) {
+            List<DaySchedule> timetable = new ArrayList<>();
+            for (TimetableData.DayDefinition definition : batch) {
+                List<CourseSlot> slots = new ArrayList<>();
+                for (int i = 0; i < definition.slots().size(); i++) {
+                    slots.add(course("21CSC" + definition.slots().get(i), "Course " + i, definition.time().get(i)));
+                }
+                timetable.add(day(definition.dayOrder(), slots.toArray(CourseSlot[]::new)));
+            }
+
+            String ics = unfolded(calendarService.generateIcs(timetable, planner));
+
+            assertEquals(withoutDtStamp(inUtc(referenceCalendar(timetable, planner.subList(0, 5)))), withoutDtStamp(ics));
+        }
+    }
+
+    @Test
+    void compactModeExpandsToSameOccurrences() {
+        List<DaySchedule> timetable = List.of(
+                day("Day1", course("21CSC201J", "Data Structures", "08:00 AM - 08:50 AM"),
+                        course("21MAB204T", "Probability", "12:30 PM - 01:20 PM")),
+                day("Day2", course("21CSC201J", "Data Structures", "10:40 AM - 11:30 AM")));
+        List<DayEvent> planner = List.of(
+                new DayEvent("05-Aug-2025", "Tue", "", "Day1"),
+                new DayEvent("06-Aug-2025", "Wed", "Holiday", "-"),
+                new DayEvent("07-Aug-2025", "Thu", "", "Day2"),
+                new DayEvent("08-Aug-2025", "Fri", "", "Day1"),
+                new DayEvent("11-Aug-2025", "Mon", "", "Day2"));
+
+        String expanded = unfolded(calendarService.generateIcs(timetable, planner));
+        String compact = unfolded(new CalendarService(true).generateIcs(timetable, planner));
+
+        assertEquals(occurrences(expanded), occurrences(compact));
+        assertEquals(3, compact.split("BEGIN:VEVENT").length - 1);
+    }
+
+    private static String unfolded(byte[] ics) {
+        return new String(ics, StandardCharsets.UTF_8).replace("\r\n ", "");
+    }
+
+    // "start/end summary" for every occurrence, with RDATEs expanded using the master event's duration
+    private static Set<String> occurrences(String ics) {
+        Set<String> occurrences = new TreeSet<>();
+        for (String event : ics.split("BEGIN:VEVENT\r\n")) {
+            Map<String, String> properties = new HashMap<>();
+            for (String line : event.split("\r\n")) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    properties.put(line.substring(0, colon), line.substring(colon + 1));
+                }
+            }
+            if (!properties.containsKey("DTSTART")) {
+                continue;
+            }
+            DateTimeFormatter utc = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssX");
+            Instant start = ZonedDateTime.parse(properties.get("DTSTART"), utc).toInstant();
+            Duration duration = Duration.between(start, ZonedDateTime.parse(properties.get("DTEND"), utc).toInstant());
+            List<Instant> starts = new ArrayList<>(List.of(start));
+            if (properties.containsKey("RDATE")) {
+                for (String rdate : properties.get("RDATE").split(",")) {
+                    starts.add(ZonedDateTime.parse(rdate, utc).toInstant());
+                }
+            }
+            for (Instant occurrence : starts) {
+                occurrences.add(occurrence + "/" + occurrence.plus(duration) + " " + properties.get("SUMMARY"));
+            }
+        }
+        return occurrences;
+    }
+
+    // The ical4j model CalendarService used before the streaming writer. Its DateTimes carried no zone, so
+    // they were written as floating times in the host's default zone; rendered here as on our UTC hosts.
+    private static String referenceCalendar(List<DaySchedule> timetable, List<DayEvent> planner) throws Exception {
+        TimeZone hostZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        try {
+            return baselineModel(timetable, planner).toString();
+        } finally {
+            TimeZone.setDefault(hostZone);
+        }
+    }
+
+    // The floating DTSTART and DTEND values of the old model, marked as the UTC times they were rendered in
+    private static String inUtc(String reference) {
+        return reference.replaceAll("(?m)^(DTSTART|DTEND):(\\d{8}T\\d{6})$", "$1:$2Z");
+    }
+
+    private static Calendar baselineModel(List<DaySchedule> timetable, List<DayEvent> planner) throws Exception {
+        Calendar calendar = new Calendar();
+        calendar.getProperties().add(new ProdId("-//CalSync//EN"));
+        calendar.getProperties().add(Version.VERSION_2_0);
+        for (DayEvent dayEvent : planner) {
+            for (DaySchedule schedule : timetable) {
+                if (!schedule.getDayOrder().equals(dayEvent.getDayOrder())) {
+                    continue;
+                }
+                for (CourseSlot course : schedule.getClasses()) {
+                    if (!course.isClass()) {
+                        continue;
+                    }
+                    LocalDate date = LocalDate.parse(dayEvent.getDate(), DATE);
+                    String[] times = course.getTime().split(" - ");
+                    DateTime start = new DateTime(java.util.Date.from(date.atTime(LocalTime.parse(times[0], TIME)).atZone(ZONE_ID).toInstant()));
+                    DateTime end = new DateTime(java.util.Date.from(date.atTime(LocalTime.parse(times[1], TIME)).atZone(ZONE_ID).toInstant()));
+                    VEvent event = new VEvent(start, end, course.getCourseCode() + " - " + course.getCourseTitle());
+                    byte[] hash = MessageDigest.getInstance("SHA-256")
+                            .digest((dayEvent.getDate() + course.getCourseCode() + course.getTime()).getBytes(StandardCharsets.UTF_8));
+                    event.getProperties().add(new Uid(HexFormat.of().formatHex(hash) + "@calsync.com"));
+                    calendar.getComponents().add(event);
+                }
+            }
+        }
+        return calendar;
+    }
+
+    private static String withoutDtStamp(String ics) {
+        return Arrays.stream(ics.split("\r\n"))
+                .filter(line -> !line.startsWith("DTSTAMP:"))
+                .collect(Collectors.joining("\r\n"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.model.CalendarSnapshot;
+import com.CalSync.calSync.model.User;
+import com.CalSync.calSync.repository.CalendarSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CalendarSnapshotServiceTest {
+
+    private static final String TOKEN = "subscription";
+
+    private final CalendarSnapshotRepository repository = mock(CalendarSnapshotRepository.class);
+    private final CalendarSnapshotService snapshotService = new CalendarSnapshotService(repository);
+    private final CalendarCacheService calendarCacheService = new CalendarCacheService(1 << 20, Duration.ofHours(1), Duration.ofDays(1));
+    private final User user = new User();
+    private CachedCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        user.setId(7L);
+        user.setUsername("student");
+        user.setSubscriptionToken(TOKEN);
+        calendar = calendarCacheService.create("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void onlyTouchesAnUnchangedSnapshot() {
+        when(repository.touch(7L, Hashing.sha256Hex(calendar.content()), calendar.generatedAt())).thenReturn(1);
+
+        snapshotService.save(user, calendar);
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void insertsWhenThereIsNoMatchingSnapshot() {
+        when(repository.touch(anyLong(), anyString(), any())).thenReturn(0);
+
+        snapshotService.save(user, calendar);
+
+        ArgumentCaptor<CalendarSnapshot> saved = ArgumentCaptor.forClass(CalendarSnapshot.class);
+        verify(repository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getUserId());
+        assertEquals(TOKEN, saved.getValue().getSubscriptionToken());
+        assertArrayEquals(calendar.gzipContent(), saved.getValue().getGzipContent());
+        assertEquals(Hashing.sha256Hex(calendar.content()), saved.getValue().getContentHash());
+        assertEquals(calendar.etag(), saved.getValue().getEtag());
+        assertEquals(calendar.generatedAt(), saved.getValue().getGeneratedAt());
+    }
+
+    @Test
+    void loadRestoresContentAndGenerationTime() {
+        Instant generatedAt = Instant.now().minus(3, ChronoUnit.HOURS);
+        CalendarSnapshot snapshot = new CalendarSnapshot();
+        snapshot.setGzipContent(calendar.gzipContent());
+        snapshot.setEtag(calendar.etag());
+        snapshot.setGeneratedAt(generatedAt);
+        when(repository.findBySubscriptionToken(TOKEN)).thenReturn(Optional.of(snapshot));
+
+        CachedCalendar loaded = snapshotService.load(TOKEN).orElseThrow();
+
+        assertArrayEquals(calendar.content(), loaded.content());
+        assertArrayEquals(calendar.gzipContent(), loaded.gzipContent());
+        assertEquals(calendar.etag(), loaded.etag());
+        // Keeps the original time, so an old snapshot is treated as stale rather than fresh
+        assertEquals(generatedAt, loaded.generatedAt());
+        assertFalse(calendarCacheService.isFresh(loaded));
+    }
+
+    @Test
+    void loadFindsNothingForAnUnknownToken() {
+        when(repository.findBySubscriptionToken(TOKEN)).thenReturn(Optional.empty());
+
+        assertTrue(snapshotService.load(TOKEN).isEmpty());
+    }
+}
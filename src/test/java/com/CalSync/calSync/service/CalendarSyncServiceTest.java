@@ -0,0 +1,86 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.dto.CalendarChanges;
+import com.CalSync.calSync.dto.CalendarEvent;
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.dto.DaySchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.CalSync.calSync.testsupport.Fixtures.course;
+import static com.CalSync.calSync.testsupport.Fixtures.day;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalendarSyncServiceTest {
+
+    private static final String TOKEN = "subscription";
+
+    private final CalendarCacheService calendarCacheService = new CalendarCacheService(1 << 20, Duration.ofHours(1), Duration.ZERO);
+    private final CalendarSyncService syncService = new CalendarSyncService(2, 1 << 20, Duration.ofDays(1));
+
+    private final List<DayEvent> twoDays = List.of(
+            new DayEvent("04-Aug-2025", "Mon", "", "Day1"),
+            new DayEvent("05-Aug-2025", "Tue", "", "Day1"));
+
+    @Test
+    void returnsOnlyWhatChangedSinceTheSyncToken() {
+        List<DaySchedule> before = List.of(day("Day1", course("21CSC201J", "Data Structures", "08:00 AM - 08:50 AM"),
+                course("21MAB204T", "Probability", "12:30 PM - 01:20 PM")));
+        CalendarChanges first = syncService.changes(TOKEN, calendar(before, twoDays), null);
+        assertTrue(first.reset());
+        assertEquals(4, first.added().size());
+        assertEquals("21CSC201J - Data Structures", first.added().get(0).summary());
+
+        // A regeneration with identical events keeps the token and reports nothing
+        CalendarChanges unchanged = syncService.changes(TOKEN, calendar(before, twoDays), first.syncToken());
+        assertEquals(first.syncToken(), unchanged.syncToken());
+        assertFalse(unchanged.reset());
+        assertTrue(unchanged.added().isEmpty() && unchanged.changed().isEmpty() && unchanged.removed().isEmpty());
+
+        List<DaySchedule> after = List.of(day("Day1", course("21CSC201J", "Data Structures", "08:00 AM - 08:50 AM"),
+                course("21MAB204T", "Probability and Queueing", "12:30 PM - 01:20 PM"),
+                course("21LEH101T", "French", "03:10 PM - 04:00 PM")));
+        CalendarChanges delta = syncService.changes(TOKEN, calendar(after, twoDays.subList(0, 1)), first.syncToken());
+        assertNotEquals(first.syncToken(), delta.syncToken());
+        assertFalse(delta.reset());
+        assertEquals(List.of("21LEH101T - French"), delta.added().stream().map(CalendarEvent::summary).toList());
+        assertEquals(List.of("21MAB204T - Probability and Queueing"), delta.changed().stream().map(CalendarEvent::summary).toList());
+        assertEquals(2, delta.removed().size());
+        assertEquals(Instant.parse("2025-08-04T07:00:00Z"), delta.changed().get(0).start());
+    }
+
+    @Test
+    void resetsForUnknownOrExpiredTokens() {
+        CalendarChanges first = syncService.changes(TOKEN, calendar(List.of(day("Day1", course("A", "One", "08:00 AM - 08:50 AM"))), twoDays), null);
+        syncService.changes(TOKEN, calendar(List.of(day("Day1", course("A", "Two", "08:00 AM - 08:50 AM"))), twoDays), null);
+        syncService.changes(TOKEN, calendar(List.of(day("Day1", course("A", "Three", "08:00 AM - 08:50 AM"))), twoDays), null);
+
+        // Only the last two event sets are remembered
+        CalendarChanges expired = syncService.changes(TOKEN, calendar(List.of(day("Day1", course("A", "Three", "08:00 AM - 08:50 AM"))), twoDays), first.syncToken());
+        assertTrue(expired.reset());
+        assertEquals(2, expired.added().size());
+        assertTrue(syncService.changes(TOKEN, calendar(List.of(day("Day1", course("A", "Three", "08:00 AM - 08:50 AM"))), twoDays), "bogus").reset());
+    }
+
+    @Test
+    void indexesCompactCalendars() {
+        List<DaySchedule> timetable = List.of(day("Day1", course("21CSC201J", "Data Structures", "08:00 AM - 08:50 AM")));
+        byte[] ics = new CalendarService(true).generateIcs(timetable, twoDays);
+
+        CalendarChanges changes = syncService.changes(TOKEN, calendarCacheService.create(ics), null);
+
+        assertEquals(1, changes.added().size());
+        assertEquals(List.of(Instant.parse("2025-08-05T02:30:00Z")), changes.added().get(0).additionalStarts());
+    }
+
+    private CachedCalendar calendar(List<DaySchedule> timetable, List<DayEvent> planner) {
+        return calendarCacheService.create(new CalendarService().generateIcs(timetable, planner));
+    }
+}
@@ -0,0 +1,86 @@
+package com.CalSync.calSync.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncryptionServiceTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    private final EncryptionService encryptionService = new EncryptionService(KEY);
+
+    @Test
+    void roundTripsUnderAFreshIv() {
+        String first = encryptionService.encrypt("pässword");
+        String second = encryptionService.encrypt("pässword");
+        assertNotEquals(first, second);
+        assertFalse(encryptionService.isLegacy(first));
+        assertEquals("pässword", encryptionService.decrypt(first));
+        assertEquals("pässword", encryptionService.decrypt(second));
+    }
+
+    @Test
+    void rejectsTamperedCiphertext() {
+        String encrypted = encryptionService.encrypt("password");
+        byte[] bytes = Base64.getDecoder().decode(encrypted.substring("v2:".length()));
+        bytes[bytes.length - 1] ^= 1;
+        String tampered = "v2:" + Base64.getEncoder().encodeToString(bytes);
+        assertThrows(RuntimeException.class, () -> encryptionService.decrypt(tampered));
+        assertThrows(RuntimeException.class, () -> new EncryptionService("fedcba9876543210").decrypt(encrypted));
+    }
+
+    @Test
+    void decryptsValuesWrittenByTheLegacyCipher() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+        String legacy = Base64.getEncoder().encodeToString(cipher.doFinal("password".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(encryptionService.isLegacy(legacy));
+        assertEquals("password", encryptionService.decrypt(legacy));
+    }
+
+    @Test
+    void decryptsConcurrently() throws Exception {
+        List<String> passwords = new ArrayList<>();
+        List<String> encrypted = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            passwords.add("password-" + i);
+            encrypted.add(encryptionService.encrypt("password-" + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        for (int i = 0; i < passwords.size(); i++) {
+                            if (!passwords.get(i).equals(encryptionService.decrypt(encrypted.get(i)))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.DayEvent;
+import com.CalSync.calSync.testsupport.Fixtures;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParsingServiceTest {
+
+    private final ParsingService parsingService = new ParsingService();
+
+    @Test
+    void plannerMatchesFullDomParseOnFixturePage() {
+        String page = Fixtures.academicPlanner();
+
+        List<DayEvent> events = parsingService.parseAcademicPlanner(page);
+
+        assertFalse(events.isEmpty());
+        assertEquals(legacyParseAcademicPlanner(page), events);
+    }
+
+    @Test
+    void plannerMatchesFullDomParseOnIrregularPages() {
+        String page = Fixtures.academicPlanner();
+        List<String> variants = List.of(
+                // Attribute order, quoting and case differ from the fixture page
+                page.replace("<div id=\"pb-embed\" class=\"zc-pb-embed-placeholder-content zc-live\" elname=\"Academic_Planner\" zmlvalue=\"",
+                        "<DIV ZMLVALUE=\"").replace("\"></div></div>", "\" Class='zc-live zc-pb-embed-placeholder-content'></div></div>"),
+                // Container without a zmlvalue
+                "<div class=\"zc-pb-embed-placeholder-content\"></div>",
+                // Class name only mentioned outside a div start tag
+                "<style>.zc-pb-embed-placeholder-content{}</style><span class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"x\"></span>",
+                "<html><body>No planner here</body></html>",
+                // Decoy containers the HTML parser only sees as text, ahead of the real one
+                decoy(page, "<script>var tpl = '<div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div>';</script>"),
+                decoy(page, "<SCRIPT type=\"text/template\"><div class='zc-pb-embed-placeholder-content'></div></script >"),
+                decoy(page, "<style>/* <div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"> */</style>"),
+                decoy(page, "<!-- <div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div> -->"),
+                decoy(page, "<!--><div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"\"></div>"),
+                decoy(page, "<textarea><div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div></textarea>"),
+                // A script end tag inside a string does not end the script for the scanner or the parser alike
+                decoy(page, "<script>document.write('</scriptx><div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div>');</script>"),
+                // Unterminated regions hide everything after them
+                page.replace("<body>", "<body><!-- never closed "),
+                page.replace("<body>", "<body><script>"));
+        for (String variant : variants) {
+            assertEquals(legacyParseAcademicPlanner(variant), parsingService.parseAcademicPlanner(variant));
+        }
+        assertNull(PlannerEmbedScanner.zmlValue("<html><body>No planner here</body></html>"));
+    }
+
+    @Test
+    void scannerSkipsMarkupTheParserReadsAsText() {
+        String page = Fixtures.academicPlanner();
+        String expected = PlannerEmbedScanner.zmlValue(page);
+        List<String> decoys = List.of(
+                "<script>var tpl = '<div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div>';</script>",
+                "<style>/* <div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"> */</style>",
+                "<!-- <div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></div> -->",
+                "<title><div class=\"zc-pb-embed-placeholder-content\" zmlvalue=\"decoy\"></title>");
+
+        assertFalse(expected.isEmpty());
+        for (String markup : decoys) {
+            assertEquals(expected, PlannerEmbedScanner.zmlValue(decoy(page, markup)), markup);
+        }
+    }
+
+    private static String decoy(String page, String markup) {
+        return page.replace("<body>", "<body>" + markup);
+    }
+
+    // The double full-DOM implementation ParsingService used before the targeted planner parse
+    private static List<DayEvent> legacyParseAcademicPlanner(String rawHtml) {
+        Document doc = Jsoup.parse(rawHtml);
+        Element zmlDiv = doc.selectFirst("div.zc-pb-embed-placeholder-content");
+        if (zmlDiv == null) {
+            return new ArrayList<>();
+        }
+        String zmlValue = zmlDiv.attr("zmlvalue");
+        if (zmlValue.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Element mainTable = Jsoup.parse(zmlValue).selectFirst("table[bgcolor='#FAFCFE']");
+        if (mainTable == null) {
+            return new ArrayList<>();
+        }
+        List<String> months = new ArrayList<>();
+        Element headerRow = mainTable.selectFirst("tr");
+        if (headerRow == null) return new ArrayList<>();
+        Elements ths = headerRow.select("th");
+        for (int i = 0; ; i++) {
+            int monthNameThIndex = i * 5 + 2;
+            if (monthNameThIndex >= ths.size()) break;
+            Element strongElement = ths.get(monthNameThIndex).selectFirst("strong");
+            if (strongElement == null) continue;
+            String monthName = strongElement.text().trim();
+            if (monthName.isEmpty()) break;
+            months.add(monthName);
+        }
+        List<DayEvent> academicCalendar = new ArrayList<>();
+        for (Element row : mainTable.select("tr:gt(0)")) {
+            Elements tds = row.select("td");
+            for (int monthIndex = 0; monthIndex < months.size(); monthIndex++) {
+                int offset = monthIndex * 5;
+                if (offset + 3 >= tds.size()) continue;
+                String date = tds.get(offset).text().trim();
+                if (date.isEmpty() || !date.matches("\\d+")) continue;
+                String day = tds.get(offset + 1).text().trim();
+                Element eventElement = tds.get(offset + 2).selectFirst("strong");
+                String event = (eventElement != null) ? eventElement.text().trim() : "";
+                String dayOrder = tds.get(offset + 3).text().trim();
+                if (dayOrder.matches("\\d+")) {
+                    dayOrder = "Day" + dayOrder;
+                }
+                String monthYear = months.get(monthIndex);
+                String monthName = monthYear.split(" ")[0];
+                String yearPart = monthYear.split(" ")[1].replaceAll("[^\\d]", "");
+                String year = (yearPart.length() == 2) ? "20" + yearPart : yearPart;
+                String fullDate = String.format("%s-%s-%s", date.length() == 1 ? "0" + date : date, monthName.substring(0, 3), year);
+                academicCalendar.add(new DayEvent(fullDate, day, event, dayOrder));
+            }
+        }
+        return academicCalendar;
+    }
+}
@@ -0,0 +1,156 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CachedCalendar;
+import com.CalSync.calSync.model.User;
+import com.CalSync.calSync.repository.UserRepository;
+import com.CalSync.calSync.testsupport.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionServiceTest {
+
+    private static final String TOKEN = "subscription";
+    private static final String COOKIE = "JSESSIONID=session";
+    private static final Duration STALE_DEADLINE = Duration.ofMillis(300);
+
+    private final AcademiaService academiaService = mock(AcademiaService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CalendarSnapshotService calendarSnapshotService = mock(CalendarSnapshotService.class);
+    private final EncryptionService encryptionService = new EncryptionService("0123456789abcdef");
+    private final CalendarCacheService calendarCacheService = new CalendarCacheService(1 << 24, Duration.ofHours(1), Duration.ofDays(1));
+    private final AcademiaCircuitBreaker circuitBreaker = new AcademiaCircuitBreaker(1, Duration.ofMinutes(1));
+    private final SubscriptionService subscriptionService = new SubscriptionService(userRepository, academiaService, encryptionService,
+            new ParsingService(), new CalendarService(), calendarCacheService,
+            new AcademiaSessionPool(academiaService, Duration.ofHours(2), Duration.ofHours(12)),
+            new AcademicPlannerCache(Duration.ofHours(6), Duration.ofDays(1)),
+            new CalendarBuildCache(1 << 24, Duration.ofDays(7)), new CalendarGenerationCoalescer(), circuitBreaker,
+            calendarSnapshotService, new CalendarPipelineMetrics(new SimpleMeterRegistry()), STALE_DEADLINE);
+
+    private final User user = new User();
+    private final CachedCalendar stale = new CachedCalendar("stale".getBytes(StandardCharsets.UTF_8), new byte[0], "\"stale\"",
+            Instant.now().minus(Duration.ofHours(2)));
+
+    @BeforeEach
+    void setUp() {
+        user.setId(1L);
+        user.setUsername("student");
+        user.setPassword(encryptionService.encrypt("secret"));
+        user.setSubscriptionToken(TOKEN);
+        when(userRepository.findBySubscriptionToken(TOKEN)).thenReturn(Optional.of(user));
+        when(calendarSnapshotService.load(TOKEN)).thenReturn(Optional.empty());
+        when(academiaService.loginAsync(anyString(), anyString())).thenReturn(Mono.just(COOKIE));
+        when(academiaService.getCalendarUrl()).thenReturn("https://academia.example/Academic_Planner_2025_26_ODD");
+        when(academiaService.fetchTimetableAsync(COOKIE)).thenReturn(Mono.just(Fixtures.timetable(1)));
+        when(academiaService.fetchAcademicPlannerAsync(COOKIE)).thenReturn(Mono.just(Fixtures.academicPlanner()));
+    }
+
+    @Test
+    void servesStaleCopyWhileCircuitIsOpenAndRevalidatesInBackground() {
+        calendarCacheService.put(TOKEN, stale);
+        circuitBreaker.execute(Mono.error(new IllegalStateException("Academia down"))).onErrorResume(e -> Mono.empty()).block();
+        assertTrue(circuitBreaker.isOpen());
+
+        assertSame(stale, subscriptionService.getCalendarAsync(TOKEN).block());
+
+        // The revalidation started behind the stale response replaces it once it completes
+        CachedCalendar refreshed = awaitFreshCalendar();
+        assertTrue(refreshed.generatedAt().isAfter(stale.generatedAt()));
+    }
+
+    @Test
+    void servesStaleCopyWhenRegenerationMissesTheDeadline() {
+        when(academiaService.fetchTimetableAsync(COOKIE)).thenReturn(Mono.just(Fixtures.timetable(1)).delayElement(Duration.ofSeconds(1)));
+        calendarCacheService.put(TOKEN, stale);
+
+        long start = System.nanoTime();
+        CachedCalendar served = subscriptionService.getCalendarAsync(TOKEN).block();
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+
+        assertSame(stale, served);
+        assertTrue(waited.compareTo(STALE_DEADLINE) >= 0 && waited.compareTo(Duration.ofMillis(900)) < 0, "waited " + waited);
+        // The generation keeps running after the deadline and still refreshes the cache
+        assertNotNull(awaitFreshCalendar());
+    }
+
+    @Test
+    void servesStaleCopyWhenRegenerationFails() {
+        when(academiaService.fetchTimetableAsync(COOKIE)).thenReturn(Mono.error(new IllegalStateException("Timetable page not found")));
+        calendarCacheService.put(TOKEN, stale);
+
+        assertSame(stale, subscriptionService.getCalendarAsync(TOKEN).block());
+        assertSame(stale, calendarCacheService.getStale(TOKEN));
+    }
+
+    @Test
+    void surfacesBusyAcademiaWhenThereIsNoStaleCopy() {
+        when(academiaService.fetchTimetableAsync(COOKIE)).thenReturn(Mono.error(new AcademiaBusyException("Too many pending Academia requests, try again later.")));
+
+        // Not wrapped, so the controller can answer 503 with Retry-After instead of 404
+        RuntimeException error = assertThrows(RuntimeException.class, () -> subscriptionService.getCalendarAsync(TOKEN).block());
+        assertInstanceOf(AcademiaBusyException.class, error);
+        verify(calendarSnapshotService, never()).save(any(), any());
+    }
+
+    @Test
+    void generatesOnAMissAndServesTheCacheAfterwards() {
+        CachedCalendar generated = subscriptionService.getCalendarAsync(TOKEN).block();
+
+        assertNotNull(generated);
+        assertSame(generated, subscriptionService.getCalendarAsync(TOKEN).block());
+        verify(academiaService, times(1)).loginAsync("student", "secret");
+        verify(calendarSnapshotService).save(user, generated);
+    }
+
+    @Test
+    void servesAFreshSnapshotWithoutScrapingAndCachesIt() {
+        CachedCalendar snapshot = calendarCacheService.create("snapshot".getBytes(StandardCharsets.UTF_8));
+        when(calendarSnapshotService.load(TOKEN)).thenReturn(Optional.of(snapshot));
+
+        assertSame(snapshot, subscriptionService.getCalendarAsync(TOKEN).block());
+        assertSame(snapshot, calendarCacheService.get(TOKEN));
+        verify(academiaService, never()).loginAsync(anyString(), anyString());
+    }
+
+    @Test
+    void revalidatesAnOldSnapshotAndFallsBackToIt() {
+        when(calendarSnapshotService.load(TOKEN)).thenReturn(Optional.of(stale));
+        when(academiaService.fetchTimetableAsync(COOKIE)).thenReturn(Mono.error(new IllegalStateException("Timetable page not found")));
+
+        // Restored with its original generation time, so it goes through the stale path instead of counting as fresh
+        assertSame(stale, subscriptionService.getCalendarAsync(TOKEN).block());
+        verify(academiaService).fetchTimetableAsync(COOKIE);
+        assertSame(stale, calendarCacheService.getStale(TOKEN));
+    }
+
+    private CachedCalendar awaitFreshCalendar() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            CachedCalendar calendar = calendarCacheService.get(TOKEN);
+            if (calendar != null) {
+                return calendar;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("Calendar was not revalidated in the background");
+    }
+}
@@ -0,0 +1,93 @@
+package com.CalSync.calSync.service;
+
+import com.CalSync.calSync.dto.CourseSlot;
+import com.CalSync.calSync.dto.DaySchedule;
+import com.CalSync.calSync.testsupport.Fixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimetablePayloadDecoderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {Fixtures.TIMETABLE_BATCH_1, Fixtures.TIMETABLE_BATCH_2})
+    void matchesRegexPipelineOnFixturePages(String fixture) {
+        String page = Fixtures.load(fixture);
+
+        String payload = TimetablePayloadDecoder.extract(page);
+        assertEquals(legacyExtract(page), payload);
+        assertEquals(legacyDecode(payload), TimetablePayloadDecoder.decode(payload));
+    }
+
+    @Test
+    void parsesBothBatches() {
+        ParsingService parsingService = new ParsingService();
+
+        List<DaySchedule> batch1 = parsingService.parseTimetable(Fixtures.timetable(1));
+        List<DaySchedule> batch2 = parsingService.parseTimetable(Fixtures.timetable(2));
+
+        // Day 1 starts with the A slot for batch 1 and with a lab slot for batch 2
+        CourseSlot firstBatch1 = batch1.get(0).getClasses().get(0);
+        assertEquals("21CSC201J", firstBatch1.getCourseCode());
+        CourseSlot firstBatch2 = batch2.get(0).getClasses().get(0);
+        assertEquals("P1", firstBatch2.getSlot());
+        assertEquals("21CSC201J", firstBatch2.getCourseCode());
+        assertTrue(batch2.stream().flatMap(day -> day.getClasses().stream())
+                .anyMatch(slot -> "Français – niveau 2".equals(slot.getCourseTitle())));
+    }
+
+    @Test
+    void matchesRegexPipelineOnRandomInput() {
+        // Dense in the characters every decoding step reacts to, including the malformed cases
+        char[] alphabet = {'\\', 'x', '%', '\'', '"', '+', '-', 'C', '3', 'A', '7', 'e', 'z', ' ', 'é'};
+        Random random = new Random(42);
+        for (int run = 0; run < 20_000; run++) {
+            StringBuilder input = new StringBuilder();
+            for (int length = random.nextInt(16); length > 0; length--) {
+                input.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String payload = input.toString();
+            String expected;
+            try {
+                expected = legacyDecode(payload);
+            } catch (IllegalArgumentException e) {
+                assertThrows(IllegalArgumentException.class, () -> TimetablePayloadDecoder.decode(payload), payload);
+                continue;
+            }
+            assertEquals(expected, TimetablePayloadDecoder.decode(payload), payload);
+        }
+    }
+
+    @Test
+    void extractsGreedilyLikeTheRegex() {
+        for (String page : List.of("", "no payload", "pageSanitizer.sanitize(');", "pageSanitizer.sanitize('');",
+                "x pageSanitizer.sanitize('a'); y'); z", "pageSanitizer.sanitize('a') pageSanitizer.sanitize('b');")) {
+            assertEquals(legacyExtract(page), TimetablePayloadDecoder.extract(page), page);
+        }
+    }
+
+    // The regex pipeline ParsingService used before the single-pass decoder
+    private static String legacyExtract(String rawHtml) {
+        Matcher matcher = Pattern.compile("pageSanitizer\\.sanitize\\('(.*)'\\);", Pattern.DOTALL).matcher(rawHtml);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static String legacyDecode(String encodedHtml) {
+        String partiallyCleaned = encodedHtml
+                .replaceAll("\\\\x([0-9A-Fa-f]{2})", "%$1")
+                .replaceAll("\\\\'", "'")
+                .replaceAll("\\\\\"", "\"");
+        return URLDecoder.decode(partiallyCleaned, StandardCharsets.UTF_8);
+    }
+}
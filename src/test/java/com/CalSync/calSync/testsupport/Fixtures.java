@@ -0,0 +1,73 @@
+package com.CalSync.calSync.testsupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.CalSync.calSync.dto.CourseSlot;
+import com.CalSync.calSync.dto.DaySchedule;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by the tests and benchmarks: synthetic pages in Academia's markup under
+ * {@code src/test/resources/fixtures}, and builders for parsed timetables.
+ */
+public final class Fixtures {
+
+    public static final String TIMETABLE_BATCH_1 = "fixtures/timetable-batch1.html";
+    public static final String TIMETABLE_BATCH_2 = "fixtures/timetable-batch2.html";
+    public static final String ACADEMIC_PLANNER = "fixtures/academic-planner.html";
+
+    private Fixtures() {
+    }
+
+    public static String load(String path) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String timetable(int batch) {
+        return load(batch == 1 ? TIMETABLE_BATCH_1 : TIMETABLE_BATCH_2);
+    }
+
+    public static String academicPlanner() {
+        return load(ACADEMIC_PLANNER);
+    }
+
+    public static DaySchedule day(String dayOrder, CourseSlot... slots) {
+        DaySchedule schedule = new DaySchedule();
+        schedule.setDayOrder(dayOrder);
+        schedule.setClasses(new ArrayList<>(List.of(slots)));
+        return schedule;
+    }
+
+    public static CourseSlot course(String code, String title, String time) {
+        CourseSlot slot = free(time);
+        slot.setClass(true);
+        slot.setCourseCode(code);
+        slot.setCourseTitle(title);
+        return slot;
+    }
+
+    public static CourseSlot free(String time) {
+        CourseSlot slot = new CourseSlot();
+        slot.setTime(time);
+        return slot;
+    }
+
+    // Without a Spring context logback defaults to DEBUG on the console, which would dominate every measurement
+    public static void silenceLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}